@@ -0,0 +1,414 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.core.Block;
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.utils.Encoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Persistent index of anchored hashes to the transaction that anchored them. Entries are stored in memory-mapped
+// segment files, each a fixed-size open-addressing hash table with linear probing. Entries are never changed or
+// removed; when a segment is 70% full a new one of twice the size is started. The first anchor of a hash is kept.
+//
+// segment file: header (64b) | slot * capacity
+// header: magic (8b) | version (4b) | capacity (4b) | count (4b) | closed cleanly (1b)
+// slot: hash length (1b, 0 = empty) | hash (64b) | transaction id (32b) | height (4b) | sender (26b) | padding (1b)
+public class AnchorIndex implements AutoCloseable {
+    public static final int MAX_HASH_LENGTH = 64;
+
+    private static final long MAGIC = 0x4c544f414e434831L; // LTOANCH1
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int OFFSET_COUNT = 16;
+    private static final int OFFSET_CLEAN = 20;
+    private static final int SLOT_SIZE = 128;
+    private static final int ID_LENGTH = 32;
+    private static final int ADDRESS_LENGTH = 26;
+    private static final int OFFSET_HASH = 1;
+    private static final int OFFSET_ID = OFFSET_HASH + MAX_HASH_LENGTH;
+    private static final int OFFSET_HEIGHT = OFFSET_ID + ID_LENGTH;
+    private static final int OFFSET_SENDER = OFFSET_HEIGHT + 4;
+    private static final double MAX_LOAD = 0.7;
+    // keeps a segment file below 2GB
+    private static final int MAX_CAPACITY = 1 << 23;
+
+    private final Path directory;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public AnchorIndex(Path directory, int initialCapacity) {
+        if (Integer.bitCount(initialCapacity) != 1 || initialCapacity > MAX_CAPACITY)
+            throw new InvalidArgumentException("Capacity should be a power of 2, up to " + MAX_CAPACITY);
+
+        this.directory = directory;
+
+        try {
+            Files.createDirectories(directory);
+            for (Path file : segmentFiles(directory)) segments.add(Segment.open(file));
+            if (segments.isEmpty()) segments.add(Segment.create(segmentFile(0), initialCapacity));
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Unable to open anchor index " + directory, e);
+        }
+    }
+
+    public AnchorIndex(Path directory) {
+        this(directory, 1 << 16);
+    }
+
+    // returns false if the hash was already indexed
+    public boolean put(byte[] hash, TransactionId transactionId, int height, byte[] sender) {
+        if (height <= 0) throw new InvalidArgumentException("Only anchors in a block can be indexed");
+        if (hash.length == 0 || hash.length > MAX_HASH_LENGTH)
+            throw new InvalidArgumentException("Anchor hash should be 1 to " + MAX_HASH_LENGTH + " bytes");
+        if (sender.length != ADDRESS_LENGTH)
+            throw new InvalidArgumentException("Sender address should be " + ADDRESS_LENGTH + " bytes");
+
+        lock.writeLock().lock();
+        try {
+            if (find(hash) != null) return false;
+
+            Segment segment = segments.get(segments.size() - 1);
+            if (segment.count + 1 > segment.capacity * MAX_LOAD) segment = grow(segment);
+
+            segment.insert(hash, transactionId.getBytes(), height, sender);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Entry get(byte[] hash) {
+        lock.readLock().lock();
+        try {
+            return find(hash);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Entry get(String hash, Encoding encoding) {
+        return get(Encoder.decode(hash, encoding));
+    }
+
+    public boolean contains(byte[] hash) {
+        return get(hash) != null;
+    }
+
+    // returns the number of hashes that were added. A transaction that isn't in a block (height 0) is skipped, as the
+    // first anchor of a hash is kept and its height couldn't be corrected later.
+    public int index(Transaction transaction, int height) {
+        if (!(transaction instanceof Anchor) || height <= 0) return 0;
+
+        byte[] id = transaction.getId().getBytes();
+        byte[] sender = Encoder.base58Decode(transaction.getSender().getAddress());
+        int added = 0;
+
+        for (String hash : ((Anchor) transaction).getHashes(Encoding.BASE58)) {
+            if (put(Encoder.base58Decode(hash), new TransactionId(id), height, sender)) added++;
+        }
+
+        return added;
+    }
+
+    // transactions of the history of an address know their height
+    public int index(Transaction transaction) {
+        return index(transaction, transaction.getHeight());
+    }
+
+    public int index(Block block) {
+        int added = 0;
+        for (Transaction transaction : block.getTransactions()) added += index(transaction, block.getHeight());
+        return added;
+    }
+
+    public int indexAll(Iterator<Block> blocks) {
+        int added = 0;
+        while (blocks.hasNext()) added += index(blocks.next());
+        return added;
+    }
+
+    public void forEachHash(Consumer<byte[]> action) {
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments) segment.forEachHash(action);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segments.stream().mapToInt(s -> s.count).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // writes changes to disk
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) segment.buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) segment.close();
+            segments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Entry find(byte[] hash) {
+        long h = hash(hash);
+
+        // the oldest segment has the first anchor of a hash
+        for (Segment segment : segments) {
+            Entry entry = segment.find(hash, h);
+            if (entry != null) return entry;
+        }
+
+        return null;
+    }
+
+    private Segment grow(Segment current) {
+        try {
+            current.buffer.force();
+            int capacity = Math.min(MAX_CAPACITY, current.capacity * 2);
+            Segment segment = Segment.create(segmentFile(segments.size()), capacity);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create anchor index segment", e);
+        }
+    }
+
+    private Path segmentFile(int n) {
+        return directory.resolve(String.format("anchors-%05d.idx", n));
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "anchors-*.idx")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    // 64-bit FNV-1a, anchors are usually hashes already but don't have to be
+    private static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 32);
+    }
+
+    private static class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        int count;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer, int capacity, int count) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.count = count;
+        }
+
+        static Segment create(Path file, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+            buffer.putLong(0, MAGIC);
+            buffer.putInt(8, VERSION);
+            buffer.putInt(12, capacity);
+            buffer.putInt(OFFSET_COUNT, 0);
+            buffer.put(OFFSET_CLEAN, (byte) 0);
+            return new Segment(channel, buffer, capacity, 0);
+        }
+
+        static Segment open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+
+            if (channel.size() < HEADER_SIZE || buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+                channel.close();
+                throw new IOException("Not an anchor index segment: " + file);
+            }
+
+            int capacity = buffer.getInt(12);
+            if (channel.size() != HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+                channel.close();
+                throw new IOException("Anchor index segment has the wrong size: " + file);
+            }
+
+            // the count in the header may be behind after a crash, then the slots are counted
+            int count = buffer.getInt(OFFSET_COUNT);
+            if (buffer.get(OFFSET_CLEAN) != 1) {
+                count = 0;
+                for (int i = 0; i < capacity; i++) {
+                    if (buffer.get(HEADER_SIZE + i * SLOT_SIZE) != 0) count++;
+                }
+                buffer.putInt(OFFSET_COUNT, count);
+            }
+
+            // on disk before any slot is written, so a crash is always noticed
+            buffer.put(OFFSET_CLEAN, (byte) 0);
+            buffer.force();
+
+            return new Segment(channel, buffer, capacity, count);
+        }
+
+        Entry find(byte[] hash, long h) {
+            int mask = capacity - 1;
+
+            for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+                int slot = HEADER_SIZE + i * SLOT_SIZE;
+                int length = buffer.get(slot);
+                if (length == 0) return null;
+                if (length == hash.length && matches(slot, hash)) return read(slot, hash);
+            }
+        }
+
+        void forEachHash(Consumer<byte[]> action) {
+            for (int i = 0; i < capacity; i++) {
+                int slot = HEADER_SIZE + i * SLOT_SIZE;
+                int length = buffer.get(slot);
+                if (length != 0) action.accept(read(slot + OFFSET_HASH, length));
+            }
+        }
+
+        void insert(byte[] hash, byte[] id, int height, byte[] sender) {
+            int mask = capacity - 1;
+            int i = (int) hash(hash) & mask;
+            while (buffer.get(HEADER_SIZE + i * SLOT_SIZE) != 0) i = (i + 1) & mask;
+
+            int slot = HEADER_SIZE + i * SLOT_SIZE;
+            write(slot + OFFSET_HASH, hash);
+            write(slot + OFFSET_ID, id);
+            buffer.putInt(slot + OFFSET_HEIGHT, height);
+            write(slot + OFFSET_SENDER, sender);
+            // the length marks the slot as used, so it's written last
+            buffer.put(slot, (byte) hash.length);
+
+            buffer.putInt(OFFSET_COUNT, ++count);
+        }
+
+        private boolean matches(int slot, byte[] hash) {
+            for (int j = 0; j < hash.length; j++) {
+                if (buffer.get(slot + OFFSET_HASH + j) != hash[j]) return false;
+            }
+            return true;
+        }
+
+        private Entry read(int slot, byte[] hash) {
+            byte[] id = read(slot + OFFSET_ID, ID_LENGTH);
+            byte[] sender = read(slot + OFFSET_SENDER, ADDRESS_LENGTH);
+
+            return new Entry(hash.clone(), new TransactionId(id), buffer.getInt(slot + OFFSET_HEIGHT), sender);
+        }
+
+        // duplicates keep the shared buffer position untouched, so reads can run concurrently
+        private void write(int offset, byte[] bytes) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset);
+            view.put(bytes);
+        }
+
+        private byte[] read(int offset, int length) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset);
+            byte[] bytes = new byte[length];
+            view.get(bytes);
+            return bytes;
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                buffer.put(OFFSET_CLEAN, (byte) 1);
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public static class Entry {
+        private final byte[] hash;
+        private final TransactionId transactionId;
+        private final int height;
+        private final byte[] sender;
+
+        Entry(byte[] hash, TransactionId transactionId, int height, byte[] sender) {
+            this.hash = hash;
+            this.transactionId = transactionId;
+            this.height = height;
+            this.sender = sender;
+        }
+
+        public byte[] getHash() {
+            return hash.clone();
+        }
+
+        public TransactionId getTransactionId() {
+            return transactionId;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public String getSender() {
+            return Encoder.base58Encode(sender);
+        }
+
+        public byte[] getSenderBytes() {
+            return sender.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry entry = (Entry) o;
+            return height == entry.height && Arrays.equals(hash, entry.hash) && transactionId.equals(entry.transactionId)
+                    && Arrays.equals(sender, entry.sender);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash);
+        }
+    }
+}
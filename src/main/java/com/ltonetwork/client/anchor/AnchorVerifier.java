@@ -0,0 +1,191 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.core.PublicNode;
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.utils.Encoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// Checks a batch of hashes against the chain. Hashes that aren't in the Bloom filter of the anchor index are
+// not anchored, without a lookup. The candidates are grouped by anchor transaction, and each transaction is fetched
+// from the node once, in parallel, to confirm it's in a block and contains the hash.
+// The filter is built when the verifier is created; hashes indexed later aren't seen. If a transaction can't be
+// fetched, the hashes it covers get the ERROR status and the rest of the batch is still verified.
+public class AnchorVerifier implements AutoCloseable {
+    private final AnchorIndex index;
+    private final BloomFilter filter;
+    private final Function<String, Transaction> fetcher;
+    private final ExecutorService executor;
+
+    public AnchorVerifier(PublicNode node, AnchorIndex index, int concurrency) {
+        this(id -> fetch(node, id), index, concurrency);
+    }
+
+    public AnchorVerifier(PublicNode node, AnchorIndex index) {
+        this(node, index, 16);
+    }
+
+    // fetches a transaction by id, null if the node doesn't know it; used for testing
+    AnchorVerifier(Function<String, Transaction> fetcher, AnchorIndex index, int concurrency) {
+        if (concurrency < 1) throw new InvalidArgumentException("Concurrency should be at least 1");
+
+        this.index = index;
+        this.fetcher = fetcher;
+        this.filter = new BloomFilter(index.size());
+        index.forEachHash(filter::put);
+
+        this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "lto-anchor-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Result verify(byte[] hash) {
+        return verify(Collections.singletonList(hash)).get(0);
+    }
+
+    public List<Result> verify(List<String> hashes, Encoding encoding) {
+        List<byte[]> decoded = new ArrayList<>(hashes.size());
+        for (String hash : hashes) decoded.add(Encoder.decode(hash, encoding));
+        return verify(decoded);
+    }
+
+    // results are in the order of the hashes
+    public List<Result> verify(List<byte[]> hashes) {
+        Result[] results = new Result[hashes.size()];
+        Map<TransactionId, List<Integer>> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < hashes.size(); i++) {
+            byte[] hash = hashes.get(i);
+            AnchorIndex.Entry entry = filter.mightContain(hash) ? index.get(hash) : null;
+
+            if (entry == null) results[i] = new Result(hash, Status.NOT_ANCHORED, null);
+            else candidates.computeIfAbsent(entry.getTransactionId(), id -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(candidates.size());
+        for (Map.Entry<TransactionId, List<Integer>> candidate : candidates.entrySet()) {
+            futures.add(CompletableFuture
+                    .supplyAsync(() -> fetcher.apply(candidate.getKey().toString()), executor)
+                    .handle((tx, e) -> {
+                        if (e == null) confirm(tx, candidate.getValue(), hashes, results);
+                        else fail(cause(e), candidate.getValue(), hashes, results);
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        return Arrays.asList(results);
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // each index is only written by one task
+    private static void confirm(Transaction transaction, List<Integer> indexes, List<byte[]> hashes, Result[] results) {
+        Set<String> anchored = new HashSet<>();
+        if (transaction instanceof Anchor && transaction.getHeight() > 0)
+            anchored.addAll(Arrays.asList(((Anchor) transaction).getHashes(Encoding.BASE58)));
+
+        for (int i : indexes) {
+            byte[] hash = hashes.get(i);
+            results[i] = anchored.contains(Encoder.base58Encode(hash))
+                    ? new Result(hash, Status.ANCHORED, transaction)
+                    : new Result(hash, Status.NOT_CONFIRMED, null);
+        }
+    }
+
+    private static void fail(Throwable error, List<Integer> indexes, List<byte[]> hashes, Result[] results) {
+        for (int i : indexes) results[i] = new Result(hashes.get(i), Status.ERROR, null, error);
+    }
+
+    private static Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static Transaction fetch(PublicNode node, String id) {
+        try {
+            return node.getTransaction(id);
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 404) return null;
+            throw e;
+        }
+    }
+
+    public enum Status {
+        ANCHORED,
+        NOT_ANCHORED,
+        // the index has the hash, but the node doesn't have it in a block
+        NOT_CONFIRMED,
+        // the anchor transaction couldn't be fetched; see getError()
+        ERROR
+    }
+
+    public static class Result {
+        private final byte[] hash;
+        private final Status status;
+        private final Transaction transaction;
+        private final Throwable error;
+
+        Result(byte[] hash, Status status, Transaction transaction, Throwable error) {
+            this.hash = hash;
+            this.status = status;
+            this.transaction = transaction;
+            this.error = error;
+        }
+
+        Result(byte[] hash, Status status, Transaction transaction) {
+            this(hash, status, transaction, null);
+        }
+
+        public String getHash(Encoding encoding) {
+            return Encoder.encode(hash, encoding);
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isAnchored() {
+            return status == Status.ANCHORED;
+        }
+
+        // the anchor transaction, null if not anchored
+        public Transaction getTransaction() {
+            return transaction;
+        }
+
+        // why the hash couldn't be verified, null unless the status is ERROR
+        public Throwable getError() {
+            return error;
+        }
+
+        public int getHeight() {
+            return transaction != null ? transaction.getHeight() : 0;
+        }
+
+        public long getTimestamp() {
+            return transaction != null ? transaction.getTimestamp() : 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+
+// Set of byte strings that may give false positives, but never false negatives.
+// Sized for the expected number of entries and false positive rate. Adding isn't thread-safe, testing is.
+public class BloomFilter {
+    private final long[] bits;
+    private final long size;
+    private final int hashes;
+
+    public BloomFilter(int expectedEntries, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1)
+            throw new InvalidArgumentException("False positive rate should be between 0 and 1");
+
+        int n = Math.max(1, expectedEntries);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+
+        this.bits = new long[(int) Math.max(1, (m + 63) / 64)];
+        this.size = bits.length * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public BloomFilter(int expectedEntries) {
+        this(expectedEntries, 0.01);
+    }
+
+    public void put(byte[] value) {
+        long h1 = hash(value);
+        long h2 = mix(h1);
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(byte[] value) {
+        long h1 = hash(value);
+        long h2 = mix(h1);
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+
+        return true;
+    }
+
+    private static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // second, independent hash for double hashing; odd so it never repeats the same bit
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h | 1;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.core.Account;
+import com.ltonetwork.client.core.PublicNode;
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.utils.Encoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Collects document hashes and anchors them with a single Anchor transaction for the root of their Merkle tree.
+// Each document gets an inclusion proof, which together with the anchor transaction shows it was anchored.
+public class MerkleAggregator {
+    private final Function<byte[], Transaction> anchorer;
+
+    private Pending pending = new Pending();
+
+    public MerkleAggregator(PublicNode node, Account account) {
+        this(root -> {
+            Anchor anchor = new Anchor(Encoder.base58Encode(root), Encoding.BASE58);
+            anchor.signWith(account);
+            return node.broadcast(anchor);
+        });
+    }
+
+    // anchors the root and returns the transaction; used for testing
+    MerkleAggregator(Function<byte[], Transaction> anchorer) {
+        this.anchorer = anchorer;
+    }
+
+    // returns a handle for the document, which gives its proof once the batch it ends up in is anchored
+    public synchronized Document add(byte[] hash) {
+        pending.documents.add(hash.clone());
+        return new Document(pending, pending.documents.size() - 1);
+    }
+
+    public Document add(String hash, Encoding encoding) {
+        return add(Encoder.decode(hash, encoding));
+    }
+
+    public synchronized int size() {
+        return pending.documents.size();
+    }
+
+    // anchors the collected documents, new documents go into the next batch. The node is called without holding
+    // the lock, so adding documents doesn't wait for the broadcast. If the anchor fails, the documents are put
+    // back in front of the ones added in the meantime, and their handles follow them.
+    public Batch anchor() {
+        Pending taken = take();
+        MerkleTree tree = new MerkleTree(taken.documents);
+
+        try {
+            return new Batch(taken, tree, anchorer.apply(tree.getRoot()));
+        } catch (RuntimeException e) {
+            restore(taken);
+            throw e;
+        }
+    }
+
+    private synchronized Pending take() {
+        if (pending.documents.isEmpty()) throw new BadMethodCallException("No documents to anchor");
+
+        Pending taken = pending;
+        pending = new Pending();
+        return taken;
+    }
+
+    private synchronized void restore(Pending taken) {
+        if (!pending.documents.isEmpty()) {
+            pending.offset = taken.documents.size();
+            taken.documents.addAll(pending.documents);
+            pending.mergedInto = taken;
+        }
+
+        pending = taken;
+    }
+
+    private static class Pending {
+        private final List<byte[]> documents = new ArrayList<>();
+        private volatile Pending mergedInto;
+        private volatile int offset;
+    }
+
+    public static class Document {
+        private final Pending pending;
+        private final int index;
+
+        private Document(Pending pending, int index) {
+            this.pending = pending;
+            this.index = index;
+        }
+
+        // the index of the document in its batch, which changes if the batch is merged after a failed anchor
+        public int getIndex() {
+            int i = index;
+            for (Pending p = pending; p.mergedInto != null; p = p.mergedInto) i += p.offset;
+            return i;
+        }
+
+        private Pending getPending() {
+            Pending p = pending;
+            while (p.mergedInto != null) p = p.mergedInto;
+            return p;
+        }
+    }
+
+    public static class Batch {
+        private final Pending pending;
+        private final MerkleTree tree;
+        private final Transaction transaction;
+
+        private Batch(Pending pending, MerkleTree tree, Transaction transaction) {
+            this.pending = pending;
+            this.tree = tree;
+            this.transaction = transaction;
+        }
+
+        public byte[] getRoot() {
+            return tree.getRoot();
+        }
+
+        public Transaction getTransaction() {
+            return transaction;
+        }
+
+        public int size() {
+            return tree.size();
+        }
+
+        public boolean contains(Document document) {
+            return document.getPending() == pending;
+        }
+
+        public MerkleProof getProof(Document document) {
+            if (!contains(document)) throw new InvalidArgumentException("Document is not in this batch");
+            return tree.getProof(document.getIndex());
+        }
+
+        public MerkleProof getProof(int index) {
+            return tree.getProof(index);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.utils.Encoder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Inclusion proof of a document in a Merkle tree; the siblings on the path from the leaf to the root.
+// Verifying a proof doesn't need a node, only the root, which can be read from the anchor transaction.
+//
+// binary: sibling count (1b) | sibling on the left, a bit per sibling (8b) | sibling * 32b
+public class MerkleProof {
+    private final List<byte[]> siblings;
+    private final long left;
+
+    MerkleProof(List<byte[]> siblings, long left) {
+        this.siblings = siblings;
+        this.left = left;
+    }
+
+    public static MerkleProof fromBinary(byte[] binary) {
+        ByteBuffer buffer = ByteBuffer.wrap(binary);
+        int count = buffer.remaining() > 0 ? buffer.get() & 0xff : -1;
+
+        if (count < 0 || count > 64 || binary.length != 9 + count * MerkleTree.HASH_LENGTH)
+            throw new InvalidArgumentException("Invalid Merkle proof");
+
+        long left = buffer.getLong();
+        List<byte[]> siblings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] sibling = new byte[MerkleTree.HASH_LENGTH];
+            buffer.get(sibling);
+            siblings.add(sibling);
+        }
+
+        return new MerkleProof(siblings, left);
+    }
+
+    public static MerkleProof fromBinary(String binary, Encoding encoding) {
+        return fromBinary(Encoder.decode(binary, encoding));
+    }
+
+    public byte[] toBinary() {
+        ByteBuffer buffer = ByteBuffer.allocate(9 + siblings.size() * MerkleTree.HASH_LENGTH);
+        buffer.put((byte) siblings.size());
+        buffer.putLong(left);
+        for (byte[] sibling : siblings) buffer.put(sibling);
+        return buffer.array();
+    }
+
+    public String toBinary(Encoding encoding) {
+        return Encoder.encode(toBinary(), encoding);
+    }
+
+    public List<byte[]> getSiblings() {
+        return Collections.unmodifiableList(siblings);
+    }
+
+    public byte[] computeRoot(byte[] document) {
+        byte[] hash = MerkleTree.hashLeaf(document);
+
+        for (int i = 0; i < siblings.size(); i++) {
+            hash = (left & (1L << i)) != 0
+                    ? MerkleTree.hashNode(siblings.get(i), hash)
+                    : MerkleTree.hashNode(hash, siblings.get(i));
+        }
+
+        return hash;
+    }
+
+    public boolean verify(byte[] document, byte[] root) {
+        return Arrays.equals(computeRoot(document), root);
+    }
+
+    // the root should be one of the hashes of the anchor transaction
+    public boolean verify(byte[] document, Anchor anchor) {
+        String root = Encoder.base58Encode(computeRoot(document));
+        return Arrays.asList(anchor.getHashes(Encoding.BASE58)).contains(root);
+    }
+}
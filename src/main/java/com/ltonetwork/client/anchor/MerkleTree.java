@@ -0,0 +1,95 @@
+package com.ltonetwork.client.anchor;
+
+import com.google.common.primitives.Bytes;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.seasalt.hash.SHA256;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// SHA-256 Merkle tree over document hashes. Leaves and nodes are hashed with a different prefix, so a node can't be
+// passed off as a document. A node without a sibling is carried to the next level as is.
+// Each level is stored as one array of 32-byte hashes, and large levels are hashed in parallel.
+public class MerkleTree {
+    static final int HASH_LENGTH = 32;
+    private static final byte LEAF_PREFIX = 0;
+    private static final byte NODE_PREFIX = 1;
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private final List<byte[]> levels = new ArrayList<>();
+    private final int size;
+
+    public MerkleTree(List<byte[]> documents) {
+        if (documents.isEmpty()) throw new InvalidArgumentException("Merkle tree needs at least one document");
+
+        this.size = documents.size();
+
+        byte[] leaves = new byte[size * HASH_LENGTH];
+        range(size).forEach(i -> System.arraycopy(hashLeaf(documents.get(i)), 0, leaves, i * HASH_LENGTH, HASH_LENGTH));
+        levels.add(leaves);
+
+        for (int count = size; count > 1; count = (count + 1) / 2) {
+            levels.add(nextLevel(levels.get(levels.size() - 1), count));
+        }
+    }
+
+    public byte[] getRoot() {
+        return levels.get(levels.size() - 1).clone();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public MerkleProof getProof(int index) {
+        if (index < 0 || index >= size) throw new InvalidArgumentException("No document at index " + index);
+
+        List<byte[]> siblings = new ArrayList<>();
+        long left = 0;
+        int count = size;
+
+        for (int level = 0; level < levels.size() - 1; level++, index /= 2, count = (count + 1) / 2) {
+            int sibling = index ^ 1;
+            if (sibling >= count) continue;
+
+            if (sibling < index) left |= 1L << siblings.size();
+            siblings.add(hashAt(levels.get(level), sibling));
+        }
+
+        return new MerkleProof(siblings, left);
+    }
+
+    static byte[] hashLeaf(byte[] document) {
+        return SHA256.hash(Bytes.concat(new byte[]{LEAF_PREFIX}, document)).getBytes();
+    }
+
+    static byte[] hashNode(byte[] left, byte[] right) {
+        return SHA256.hash(Bytes.concat(new byte[]{NODE_PREFIX}, left, right)).getBytes();
+    }
+
+    private static byte[] nextLevel(byte[] level, int count) {
+        int nextCount = (count + 1) / 2;
+        byte[] next = new byte[nextCount * HASH_LENGTH];
+
+        range(nextCount).forEach(i -> {
+            byte[] hash = 2 * i + 1 < count
+                    ? hashNode(hashAt(level, 2 * i), hashAt(level, 2 * i + 1))
+                    : hashAt(level, 2 * i);
+            System.arraycopy(hash, 0, next, i * HASH_LENGTH, HASH_LENGTH);
+        });
+
+        return next;
+    }
+
+    private static byte[] hashAt(byte[] level, int index) {
+        return Arrays.copyOfRange(level, index * HASH_LENGTH, (index + 1) * HASH_LENGTH);
+    }
+
+    // every task writes its own part of the level, so no locking is needed
+    private static IntStream range(int count) {
+        IntStream range = IntStream.range(0, count);
+        return count >= PARALLEL_THRESHOLD ? range.parallel() : range;
+    }
+}
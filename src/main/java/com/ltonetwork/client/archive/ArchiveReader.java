@@ -0,0 +1,295 @@
+package com.ltonetwork.client.archive;
+
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Memory-mapped reader of an archive of signed transactions. Records are found by id through the index, or by
+// timestamp through the time range of each block; only the blocks that can hold them are read and decompressed.
+//
+// archive: header (16b) | block* | index | footer (24b)
+// header: magic (8b) | version (4b) | block size (4b)
+// block: stored length (4b) | raw length (4b) | record count (4b) | min timestamp (8b) | max timestamp (8b)
+//        | crc32 of the stored bytes (4b) | records, deflated if the stored length is below the raw length
+// records: (record length (4b) | record)*, see ArchiveRecord
+// index: block count (4b) | (offset (8b) | record count (4b) | min timestamp (8b) | max timestamp (8b))*
+//        | id count (4b) | (first 8 bytes of the id (8b) | block number (4b))*, sorted
+// footer: index offset (8b) | record count (8b) | magic (8b)
+public class ArchiveReader implements AutoCloseable, Iterable<ArchiveRecord> {
+    static final long MAGIC = 0x4c544f4152434831L; // LTOARCH1
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int BLOCK_HEADER_SIZE = 32;
+    static final int BLOCK_ENTRY_SIZE = 28;
+    static final int ID_ENTRY_SIZE = 12;
+    static final int FOOTER_SIZE = 24;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final List<Block> blocks = new ArrayList<>();
+    // the sorted id entries of the index; a view of the mapped file, or built by scan
+    private ByteBuffer ids;
+    private int idCount;
+    private long count;
+
+    // the last block that was read, for lookups of records that were archived together
+    private int cachedBlock = -1;
+    private List<ArchiveRecord> cachedRecords;
+
+    public ArchiveReader(Path file) {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open archive " + file, e);
+        }
+
+        try {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Archive is larger than 2GB");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.capacity() < HEADER_SIZE || buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION)
+                throw new IOException("Not an archive: " + file);
+
+            if (!readIndex()) scan();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Unable to open archive " + file, e);
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    // null if the transaction isn't in the archive
+    public ArchiveRecord get(TransactionId id) {
+        byte[] bytes = id.getBytes();
+        long key = idKey(bytes);
+
+        for (int i = firstId(key); i < idCount && idKeyAt(i) == key; i++) {
+            for (ArchiveRecord record : cachedBlock(idBlockAt(i))) {
+                if (record.getId().equals(id)) return record;
+            }
+        }
+
+        return null;
+    }
+
+    // records with a timestamp from (inclusive) to (exclusive), in archive order
+    public List<ArchiveRecord> getRange(long from, long to) {
+        List<ArchiveRecord> records = new ArrayList<>();
+
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            if (block.maxTimestamp < from || block.minTimestamp >= to) continue;
+
+            for (ArchiveRecord record : readBlock(i)) {
+                if (record.getTimestamp() >= from && record.getTimestamp() < to) records.add(record);
+            }
+        }
+
+        return records;
+    }
+
+    // all records in archive order, reading one block at a time
+    public Iterator<ArchiveRecord> iterator() {
+        return new Iterator<ArchiveRecord>() {
+            private int next;
+            private Iterator<ArchiveRecord> current = Collections.emptyIterator();
+
+            public boolean hasNext() {
+                while (!current.hasNext() && next < blocks.size()) current = readBlock(next++).iterator();
+                return current.hasNext();
+            }
+
+            public ArchiveRecord next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current.next();
+            }
+        };
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ids are hashes, so their first bytes are spread evenly
+    static long idKey(byte[] id) {
+        return ByteBuffer.wrap(id).getLong();
+    }
+
+    // index of the first id entry with a key that isn't lower than the given key
+    private int firstId(long key) {
+        int low = 0;
+        int high = idCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (idKeyAt(mid) < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private long idKeyAt(int i) {
+        return ids.getLong(i * ID_ENTRY_SIZE);
+    }
+
+    private int idBlockAt(int i) {
+        return ids.getInt(i * ID_ENTRY_SIZE + 8);
+    }
+
+    private boolean readIndex() {
+        int size = buffer.capacity();
+        if (size < HEADER_SIZE + FOOTER_SIZE || buffer.getLong(size - 8) != MAGIC) return false;
+
+        long indexOffset = buffer.getLong(size - FOOTER_SIZE);
+        if (indexOffset < HEADER_SIZE || indexOffset > size - FOOTER_SIZE) return false;
+
+        ByteBuffer index = view((int) indexOffset);
+        int blockCount = index.getInt();
+        for (int i = 0; i < blockCount; i++) {
+            blocks.add(new Block(index.getLong(), index.getInt(), index.getLong(), index.getLong()));
+        }
+
+        idCount = index.getInt();
+        if (idCount < 0 || (long) idCount * ID_ENTRY_SIZE > index.remaining() - FOOTER_SIZE) return false;
+
+        ids = index.slice();
+        ids.limit(idCount * ID_ENTRY_SIZE);
+
+        count = buffer.getLong(size - 16);
+        return true;
+    }
+
+    // an archive that wasn't closed has no index; it's rebuilt from the blocks, up to a block that wasn't fully written
+    private void scan() {
+        List<long[]> entries = new ArrayList<>();
+        int offset = HEADER_SIZE;
+
+        while (offset + BLOCK_HEADER_SIZE <= buffer.capacity()) {
+            int stored = buffer.getInt(offset);
+            int blockCount = buffer.getInt(offset + 8);
+            if (stored <= 0 || (long) offset + BLOCK_HEADER_SIZE + stored > buffer.capacity()) break;
+            if (buffer.getInt(offset + 28) != crc(offset + BLOCK_HEADER_SIZE, stored)) break;
+
+            blocks.add(new Block(offset, blockCount, buffer.getLong(offset + 12), buffer.getLong(offset + 20)));
+            for (ArchiveRecord record : readBlock(blocks.size() - 1)) {
+                entries.add(new long[]{idKey(record.getId().getBytes()), blocks.size() - 1});
+            }
+
+            count += blockCount;
+            offset += BLOCK_HEADER_SIZE + stored;
+        }
+
+        entries.sort((a, b) -> Long.compare(a[0], b[0]));
+        idCount = entries.size();
+        ids = ByteBuffer.allocate(idCount * ID_ENTRY_SIZE);
+        for (long[] entry : entries) ids.putLong(entry[0]).putInt((int) entry[1]);
+    }
+
+    private synchronized List<ArchiveRecord> cachedBlock(int n) {
+        if (cachedBlock != n) {
+            cachedRecords = readBlock(n);
+            cachedBlock = n;
+        }
+        return cachedRecords;
+    }
+
+    private List<ArchiveRecord> readBlock(int n) {
+        Block block = blocks.get(n);
+        int offset = (int) block.offset;
+        int stored = buffer.getInt(offset);
+        int raw = buffer.getInt(offset + 4);
+
+        if (buffer.getInt(offset + 28) != crc(offset + BLOCK_HEADER_SIZE, stored))
+            throw new UncheckedIOException(new IOException("Archive block at " + offset + " is corrupt"));
+
+        ByteBuffer records = view(offset + BLOCK_HEADER_SIZE);
+        records.limit(records.position() + stored);
+        if (stored < raw) records = inflate(records, raw);
+
+        List<ArchiveRecord> list = new ArrayList<>(block.count);
+        for (int i = 0; i < block.count; i++) {
+            int length = records.getInt();
+            ByteBuffer record = records.slice();
+            record.limit(length);
+            list.add(ArchiveRecord.readFrom(record));
+            records.position(records.position() + length);
+        }
+
+        return list;
+    }
+
+    private static ByteBuffer inflate(ByteBuffer stored, int raw) {
+        byte[] input = new byte[stored.remaining()];
+        stored.get(input);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[raw];
+            int length = 0;
+            while (length < raw && !inflater.finished()) {
+                int n = inflater.inflate(output, length, raw - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += n;
+            }
+            if (length != raw) throw new InvalidArgumentException("Archive block is truncated");
+
+            return ByteBuffer.wrap(output);
+        } catch (DataFormatException e) {
+            throw new InvalidArgumentException("Archive block can't be decompressed: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private int crc(int offset, int length) {
+        ByteBuffer view = view(offset);
+        view.limit(offset + length);
+
+        CRC32 crc = new CRC32();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    // duplicates keep the shared buffer position untouched, so reads can run concurrently
+    private ByteBuffer view(int offset) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        return view;
+    }
+
+    static class Block {
+        final long offset;
+        final int count;
+        final long minTimestamp;
+        final long maxTimestamp;
+
+        Block(long offset, int count, long minTimestamp, long maxTimestamp) {
+            this.offset = offset;
+            this.count = count;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+        }
+    }
+}
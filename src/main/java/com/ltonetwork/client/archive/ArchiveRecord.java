@@ -0,0 +1,159 @@
+package com.ltonetwork.client.archive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ltonetwork.client.core.transaction.SignedTransaction;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.JsonObject;
+import com.ltonetwork.client.utils.Encoder;
+import com.ltonetwork.seasalt.sign.Signature;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A signed transaction as it's archived: the binary that was signed and the proofs, plus the fields that can't be
+// taken from the binary (id, sender address) or are needed to index it without decoding (type, version, timestamp).
+//
+// record: id (32b) | type (1b) | version (1b) | timestamp (8b) | sender (26b) | proof count (1b)
+//         | (proof length (1b) | proof)* | binary length (4b) | binary
+public class ArchiveRecord {
+    static final int ID_LENGTH = 32;
+    static final int ADDRESS_LENGTH = 26;
+
+    private final TransactionId id;
+    private final byte type;
+    private final byte version;
+    private final long timestamp;
+    private final byte[] sender;
+    private final List<byte[]> proofs;
+    private final byte[] binary;
+
+    ArchiveRecord(TransactionId id, byte type, byte version, long timestamp, byte[] sender, List<byte[]> proofs, byte[] binary) {
+        if (sender.length != ADDRESS_LENGTH)
+            throw new InvalidArgumentException("Sender address should be " + ADDRESS_LENGTH + " bytes");
+        if (proofs.size() > 255) throw new InvalidArgumentException("A transaction has at most 255 proofs");
+        for (byte[] proof : proofs) {
+            if (proof.length > 255) throw new InvalidArgumentException("A proof is at most 255 bytes");
+        }
+
+        this.id = id;
+        this.type = type;
+        this.version = version;
+        this.timestamp = timestamp;
+        this.sender = sender;
+        this.proofs = proofs;
+        this.binary = binary;
+    }
+
+    public static ArchiveRecord of(Transaction transaction) {
+        SignedTransaction signed = transaction.toSigned();
+
+        List<byte[]> proofs = new ArrayList<>(signed.getProofs().size());
+        for (Signature proof : signed.getProofs()) proofs.add(proof.getBytes());
+
+        return new ArchiveRecord(signed.getId(), signed.getType(), signed.getVersion(), signed.getTimestamp(),
+                Encoder.base58Decode(signed.getSender().getAddress()), proofs, signed.toBinary());
+    }
+
+    // from the json of the node, e.g. to archive transactions that were stored as json before
+    public static ArchiveRecord fromJson(String json) {
+        return of(Transaction.fromJson(new JsonObject(json)));
+    }
+
+    // the json of the node, without the height
+    public String toJson() {
+        try {
+            return new ObjectMapper().writeValueAsString(TransactionDecoder.decode(this));
+        } catch (JsonProcessingException e) {
+            throw new InvalidArgumentException("Unable to serialize transaction " + id + ": " + e.getMessage());
+        }
+    }
+
+    public Transaction toTransaction() {
+        return Transaction.fromJson(new JsonObject(toJson()));
+    }
+
+    public TransactionId getId() {
+        return id;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getSender() {
+        return Encoder.base58Encode(sender);
+    }
+
+    byte[] getSenderBytes() {
+        return sender;
+    }
+
+    public List<byte[]> getProofs() {
+        List<byte[]> copies = new ArrayList<>(proofs.size());
+        for (byte[] proof : proofs) copies.add(proof.clone());
+        return copies;
+    }
+
+    public byte[] getBinary() {
+        return binary.clone();
+    }
+
+    ByteBuffer binary() {
+        return ByteBuffer.wrap(binary).asReadOnlyBuffer();
+    }
+
+    int size() {
+        int size = ID_LENGTH + 2 + 8 + ADDRESS_LENGTH + 1 + 4 + binary.length;
+        for (byte[] proof : proofs) size += 1 + proof.length;
+        return size;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.put(id.getBytes());
+        buffer.put(type);
+        buffer.put(version);
+        buffer.putLong(timestamp);
+        buffer.put(sender);
+        buffer.put((byte) proofs.size());
+        for (byte[] proof : proofs) {
+            buffer.put((byte) proof.length);
+            buffer.put(proof);
+        }
+        buffer.putInt(binary.length);
+        buffer.put(binary);
+    }
+
+    static ArchiveRecord readFrom(ByteBuffer buffer) {
+        TransactionId id = new TransactionId(bytes(buffer, ID_LENGTH));
+        byte type = buffer.get();
+        byte version = buffer.get();
+        long timestamp = buffer.getLong();
+        byte[] sender = bytes(buffer, ADDRESS_LENGTH);
+
+        int count = buffer.get() & 0xff;
+        List<byte[]> proofs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) proofs.add(bytes(buffer, buffer.get() & 0xff));
+
+        byte[] binary = bytes(buffer, buffer.getInt());
+        return new ArchiveRecord(id, type, version, timestamp, sender, Collections.unmodifiableList(proofs), binary);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,205 @@
+package com.ltonetwork.client.archive;
+
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Writes an archive of signed transactions, see ArchiveReader for the format. Records are collected in blocks of
+// about the block size, which are compressed if that makes them smaller. The index is written when the archive is
+// closed; an archive that wasn't closed can still be read.
+public class ArchiveWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final boolean compress;
+    private final int blockSize;
+    private final Deflater deflater = new Deflater();
+
+    private ByteBuffer block;
+    private int blockCount;
+    private long blockMinTimestamp = Long.MAX_VALUE;
+    private long blockMaxTimestamp = Long.MIN_VALUE;
+    private final List<ArchiveReader.Block> blocks = new ArrayList<>();
+    private final List<long[]> ids = new ArrayList<>();
+    private long position;
+    private long count;
+    private boolean closed;
+
+    public ArchiveWriter(Path file, boolean compress, int blockSize) {
+        if (blockSize < 1024) throw new InvalidArgumentException("Block size should be at least 1024 bytes");
+
+        this.compress = compress;
+        this.blockSize = blockSize;
+        this.block = ByteBuffer.allocate(blockSize);
+
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+            ByteBuffer header = ByteBuffer.allocate(ArchiveReader.HEADER_SIZE);
+            header.putLong(ArchiveReader.MAGIC);
+            header.putInt(ArchiveReader.VERSION);
+            header.putInt(blockSize);
+            write(header);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create archive " + file, e);
+        }
+    }
+
+    public ArchiveWriter(Path file) {
+        this(file, true, 64 * 1024);
+    }
+
+    public void append(Transaction transaction) {
+        append(ArchiveRecord.of(transaction));
+    }
+
+    public synchronized void append(ArchiveRecord record) {
+        if (closed) throw new BadMethodCallException("Archive is closed");
+
+        int size = 4 + record.size();
+        if (block.position() > 0 && block.position() + size > blockSize) writeBlock();
+        if (block.remaining() < size) block = ByteBuffer.allocate(size);
+
+        block.putInt(record.size());
+        record.writeTo(block);
+
+        ids.add(new long[]{ArchiveReader.idKey(record.getId().getBytes()), blocks.size()});
+        blockCount++;
+        blockMinTimestamp = Math.min(blockMinTimestamp, record.getTimestamp());
+        blockMaxTimestamp = Math.max(blockMaxTimestamp, record.getTimestamp());
+        count++;
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    // writes the records so far as a block, so they can be read before the archive is closed
+    public synchronized void flush() {
+        if (block.position() > 0) writeBlock();
+
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to flush archive", e);
+        }
+    }
+
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+
+        try {
+            if (block.position() > 0) writeBlock();
+
+            long indexOffset = position;
+            write(index());
+
+            ByteBuffer footer = ByteBuffer.allocate(ArchiveReader.FOOTER_SIZE);
+            footer.putLong(indexOffset);
+            footer.putLong(count);
+            footer.putLong(ArchiveReader.MAGIC);
+            write(footer);
+
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close archive", e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeBlock() {
+        byte[] raw = new byte[block.position()];
+        block.flip();
+        block.get(raw);
+
+        byte[] stored = compress ? deflate(raw) : raw;
+        if (stored.length >= raw.length) stored = raw;
+
+        CRC32 crc = new CRC32();
+        crc.update(stored);
+
+        ByteBuffer header = ByteBuffer.allocate(ArchiveReader.BLOCK_HEADER_SIZE);
+        header.putInt(stored.length);
+        header.putInt(raw.length);
+        header.putInt(blockCount);
+        header.putLong(blockMinTimestamp);
+        header.putLong(blockMaxTimestamp);
+        header.putInt((int) crc.getValue());
+
+        if (position + header.capacity() + stored.length > Integer.MAX_VALUE)
+            throw new InvalidArgumentException("Archive is full, an archive is at most 2GB");
+
+        blocks.add(new ArchiveReader.Block(position, blockCount, blockMinTimestamp, blockMaxTimestamp));
+        write(header);
+        write(ByteBuffer.wrap(stored));
+
+        if (block.capacity() > blockSize) block = ByteBuffer.allocate(blockSize);
+        block.clear();
+        blockCount = 0;
+        blockMinTimestamp = Long.MAX_VALUE;
+        blockMaxTimestamp = Long.MIN_VALUE;
+    }
+
+    private byte[] deflate(byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+
+        byte[] buffer = new byte[raw.length + 64];
+        int length = 0;
+        while (!deflater.finished() && length < buffer.length) {
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+
+        // not smaller, so stored as is
+        if (!deflater.finished()) return raw;
+
+        byte[] stored = new byte[length];
+        System.arraycopy(buffer, 0, stored, 0, length);
+        return stored;
+    }
+
+    // blocks by offset and timestamps, ids sorted by key
+    private ByteBuffer index() {
+        ids.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        ByteBuffer index = ByteBuffer.allocate(4 + blocks.size() * ArchiveReader.BLOCK_ENTRY_SIZE + 4 + ids.size() * ArchiveReader.ID_ENTRY_SIZE);
+        index.putInt(blocks.size());
+        for (ArchiveReader.Block b : blocks) {
+            index.putLong(b.offset);
+            index.putInt(b.count);
+            index.putLong(b.minTimestamp);
+            index.putLong(b.maxTimestamp);
+        }
+
+        index.putInt(ids.size());
+        for (long[] id : ids) {
+            index.putLong(id[0]);
+            index.putInt((int) id[1]);
+        }
+
+        index.flip();
+        return index;
+    }
+
+    private void write(ByteBuffer buffer) {
+        buffer.rewind();
+        try {
+            while (buffer.hasRemaining()) position += channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write archive", e);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.ltonetwork.client.archive;
+
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.utils.Encoder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads the binary of a transaction back into the json of the node; the reverse of the toBinaryV* methods of the
+// transaction classes.
+class TransactionDecoder {
+    private static final String[] KEY_TYPES = {"ed25519", "secp256k1", "secp256r1"};
+
+    private TransactionDecoder() {
+    }
+
+    static Map<String, Object> decode(ArchiveRecord record) {
+        ByteBuffer binary = record.binary();
+        Map<String, Object> json = new LinkedHashMap<>();
+
+        json.put("type", record.getType());
+        json.put("version", record.getVersion());
+        json.put("id", record.getId().toString());
+        json.put("sender", record.getSender());
+
+        try {
+            decodeBody(record.getType(), record.getVersion(), binary, json);
+        } catch (RuntimeException e) {
+            if (e instanceof InvalidArgumentException) throw e;
+            throw new InvalidArgumentException("Unable to decode transaction " + record.getId() + ": " + e);
+        }
+
+        List<String> proofs = new ArrayList<>();
+        for (byte[] proof : record.getProofs()) proofs.add(Encoder.base58Encode(proof));
+        json.put("proofs", proofs);
+
+        return json;
+    }
+
+    private static void decodeBody(byte type, byte version, ByteBuffer binary, Map<String, Object> json) {
+        switch (type * 256 + version) {
+            case 4 * 256 + 1:       // transfer
+            case 4 * 256 + 2:
+                legacyKey(binary, version == 1 ? 1 : 2, json);
+                json.put("timestamp", binary.getLong());
+                json.put("amount", binary.getLong());
+                json.put("fee", binary.getLong());
+                json.put("recipient", address(binary));
+                json.put("attachment", attachment(binary));
+                break;
+            case 4 * 256 + 3:
+                header(binary, json);
+                json.put("recipient", address(binary));
+                json.put("amount", binary.getLong());
+                json.put("attachment", attachment(binary));
+                break;
+            case 8 * 256 + 2:       // lease
+                legacyKey(binary, 3, json);
+                json.put("recipient", address(binary));
+                json.put("amount", binary.getLong());
+                json.put("fee", binary.getLong());
+                json.put("timestamp", binary.getLong());
+                break;
+            case 8 * 256 + 3:
+                header(binary, json);
+                json.put("recipient", address(binary));
+                json.put("amount", binary.getLong());
+                break;
+            case 9 * 256 + 2:       // cancel lease
+                legacyKey(binary, 3, json);
+                json.put("fee", binary.getLong());
+                json.put("timestamp", binary.getLong());
+                json.put("leaseId", StandardCharsets.UTF_8.decode(binary).toString());
+                break;
+            case 9 * 256 + 3:
+                header(binary, json);
+                json.put("leaseId", StandardCharsets.UTF_8.decode(binary).toString());
+                break;
+            case 11 * 256 + 1:      // mass transfer
+                legacyKey(binary, 2, json);
+                json.put("transfers", transfers(binary));
+                json.put("timestamp", binary.getLong());
+                json.put("fee", binary.getLong());
+                json.put("attachment", attachment(binary));
+                break;
+            case 11 * 256 + 3:
+                header(binary, json);
+                json.put("transfers", transfers(binary));
+                json.put("attachment", attachment(binary));
+                break;
+            case 12 * 256 + 3:      // data
+                header(binary, json);
+                json.put("data", dataEntries(binary));
+                break;
+            case 13 * 256 + 1:      // set script
+                legacyKey(binary, 3, json);
+                binary.get();
+                json.put("script", "base64:" + Encoder.base64Encode(bytes(binary, length(binary))));
+                json.put("fee", binary.getLong());
+                json.put("timestamp", binary.getLong());
+                break;
+            case 13 * 256 + 3:
+                header(binary, json);
+                json.put("script", "base64:" + Encoder.base64Encode(bytes(binary, length(binary))));
+                break;
+            case 15 * 256 + 1:      // anchor
+                legacyKey(binary, 2, json);
+                json.put("anchors", anchors(binary));
+                json.put("timestamp", binary.getLong());
+                json.put("fee", binary.getLong());
+                break;
+            case 15 * 256 + 3:
+                header(binary, json);
+                json.put("anchors", anchors(binary));
+                break;
+            case 16 * 256 + 1:      // association
+            case 17 * 256 + 1:      // revoke association
+                legacyKey(binary, 3, json);
+                json.put("party", address(binary));
+                json.put("associationType", binary.getInt());
+                hash(binary, json);
+                json.put("timestamp", binary.getLong());
+                json.put("fee", binary.getLong());
+                break;
+            case 16 * 256 + 3:
+                header(binary, json);
+                json.put("party", address(binary));
+                json.put("associationType", binary.getInt());
+                json.put("expires", binary.getLong());
+                hash(binary, json);
+                break;
+            case 17 * 256 + 3:
+                header(binary, json);
+                json.put("party", address(binary));
+                json.put("associationType", binary.getInt());
+                hash(binary, json);
+                break;
+            case 18 * 256 + 1:      // sponsor
+            case 19 * 256 + 1:      // cancel sponsor
+                legacyKey(binary, 3, json);
+                json.put("recipient", address(binary));
+                json.put("timestamp", binary.getLong());
+                json.put("fee", binary.getLong());
+                break;
+            case 18 * 256 + 3:
+            case 19 * 256 + 3:
+                header(binary, json);
+                json.put("recipient", address(binary));
+                break;
+            case 20 * 256 + 3:      // register
+                header(binary, json);
+                json.put("accounts", accounts(binary));
+                break;
+            default:
+                throw new InvalidArgumentException("Unknown transaction type " + type + " version " + version);
+        }
+    }
+
+    // type (1b) | version (1b) | network (1b) | timestamp (8b) | sender public key (33b|34b) | fee (8b)
+    private static void header(ByteBuffer binary, Map<String, Object> json) {
+        binary.position(3);
+        json.put("timestamp", binary.getLong());
+        key(binary, json, "senderKeyType", "senderPublicKey");
+        json.put("fee", binary.getLong());
+    }
+
+    // ed25519 public key (32b) after the given number of bytes
+    private static void legacyKey(ByteBuffer binary, int offset, Map<String, Object> json) {
+        binary.position(offset);
+        json.put("senderKeyType", KEY_TYPES[0]);
+        json.put("senderPublicKey", Encoder.base58Encode(bytes(binary, 32)));
+    }
+
+    // key type (1b) | public key (32b|33b)
+    private static void key(ByteBuffer binary, Map<String, Object> json, String typeField, String keyField) {
+        int keyType = binary.get();
+        if (keyType < 0 || keyType >= KEY_TYPES.length) throw new InvalidArgumentException("Unknown key type " + keyType);
+
+        json.put(typeField, KEY_TYPES[keyType]);
+        json.put(keyField, Encoder.base58Encode(bytes(binary, keyType == 0 ? 32 : 33)));
+    }
+
+    private static String address(ByteBuffer binary) {
+        return Encoder.base58Encode(bytes(binary, ArchiveRecord.ADDRESS_LENGTH));
+    }
+
+    // the length is that of the base58 string, the attachment is the rest of the binary
+    private static String attachment(ByteBuffer binary) {
+        binary.getShort();
+        return Encoder.base58Encode(bytes(binary, binary.remaining()));
+    }
+
+    private static List<Map<String, Object>> transfers(ByteBuffer binary) {
+        int count = length(binary);
+        List<Map<String, Object>> transfers = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> transfer = new LinkedHashMap<>();
+            transfer.put("recipient", address(binary));
+            transfer.put("amount", binary.getLong());
+            transfers.add(transfer);
+        }
+
+        return transfers;
+    }
+
+    private static List<String> anchors(ByteBuffer binary) {
+        int count = length(binary);
+        List<String> anchors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) anchors.add(Encoder.base58Encode(bytes(binary, length(binary))));
+        return anchors;
+    }
+
+    private static void hash(ByteBuffer binary, Map<String, Object> json) {
+        if (binary.get() == 1) json.put("hash", Encoder.base58Encode(bytes(binary, length(binary))));
+    }
+
+    private static List<Map<String, Object>> accounts(ByteBuffer binary) {
+        int count = length(binary);
+        List<Map<String, Object>> accounts = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> account = new LinkedHashMap<>();
+            key(binary, account, "keyType", "publicKey");
+            accounts.add(account);
+        }
+
+        return accounts;
+    }
+
+    // binary values are written as an array of bytes, as Data reads them
+    private static List<Map<String, Object>> dataEntries(ByteBuffer binary) {
+        int count = length(binary);
+        List<Map<String, Object>> entries = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("key", new String(bytes(binary, length(binary)), StandardCharsets.UTF_8));
+
+            byte type = binary.get();
+            switch (type) {
+                case 0:
+                    entry.put("type", "integer");
+                    entry.put("value", binary.getLong());
+                    break;
+                case 1:
+                    entry.put("type", "boolean");
+                    entry.put("value", binary.get() != 0);
+                    break;
+                case 2:
+                    List<Byte> value = new ArrayList<>();
+                    for (byte b : bytes(binary, length(binary))) value.add(b);
+                    entry.put("type", "binary");
+                    entry.put("value", value);
+                    break;
+                case 3:
+                    entry.put("type", "string");
+                    entry.put("value", new String(bytes(binary, length(binary)), StandardCharsets.UTF_8));
+                    break;
+                default:
+                    throw new InvalidArgumentException("Unknown data entry type " + type);
+            }
+
+            entries.add(entry);
+        }
+
+        return entries;
+    }
+
+    // counts and lengths are unsigned shorts
+    private static int length(ByteBuffer binary) {
+        return binary.getShort() & 0xffff;
+    }
+
+    private static byte[] bytes(ByteBuffer binary, int length) {
+        byte[] bytes = new byte[length];
+        binary.get(bytes);
+        return bytes;
+    }
+}
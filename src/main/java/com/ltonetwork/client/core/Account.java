@@ -8,18 +8,33 @@ import com.ltonetwork.client.types.PublicKey;
 import com.ltonetwork.client.utils.CryptoUtil;
 import com.ltonetwork.seasalt.sign.Signature;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 public class Account {
+    static final int MAX_SHARED_KEYS = 256;
 
     private final Address address;
     private final KeyPair encrypt;
     private final KeyPair sign;
 
+    // raw key material is extracted once, so signing doesn't copy the key on every call
+    private final byte[] signPrivateKey;
+    private final byte[] encryptPrivateKey;
+    // crypto box shared keys (X25519 + HSalsa20) by counterparty public encrypt key, least recently used first;
+    // kept as bytes, so evicted and cleared keys are wiped
+    private final LinkedHashMap<ByteBuffer, byte[]> sharedKeys;
+
     public Account(Address address, KeyPair encrypt, KeyPair sign) {
         this.address = address;
         this.encrypt = encrypt;
         this.sign = sign;
+        this.signPrivateKey = (sign == null || sign.getPrivateKey() == null) ? null : sign.getPrivateKey().getRaw();
+        this.encryptPrivateKey = (encrypt == null || encrypt.getPrivateKey() == null) ? null : encrypt.getPrivateKey().getRaw();
+        this.sharedKeys = new LinkedHashMap<>(16, 0.75f, true);
     }
 
     public Address getAddressStruct() {
@@ -68,11 +83,11 @@ public class Account {
     }
 
     public Signature sign(byte[] message) {
-        if (sign == null || sign.getPrivateKey() == null) {
+        if (signPrivateKey == null) {
             throw new RuntimeException("Unable to sign message; no secret sign key");
         }
 
-        return CryptoUtil.signDetached(message, sign.getPrivateKey());
+        return CryptoUtil.signDetached(message, signPrivateKey, sign.getPrivateKey().getType());
     }
 
     public Signature sign(String message) {
@@ -92,7 +107,7 @@ public class Account {
     }
 
     public byte[] encrypt(Account recipient, String message) {
-        if (encrypt == null || encrypt.getPrivateKey() == null) {
+        if (encryptPrivateKey == null) {
             throw new RuntimeException("Unable to encrypt message; no secret encryption key");
         }
         if (recipient.encrypt == null || recipient.encrypt.getPublicKey() == null) {
@@ -100,13 +115,14 @@ public class Account {
         }
 
         byte[] nonce = getNonce();
+        byte[] sharedKey = sharedKey(recipient);
 
-        byte[] retEncrypt = CryptoUtil.cryptoBox(
-                nonce,
-                message.getBytes(),
-                recipient.encrypt.getPublicKey().getRaw(),
-                encrypt.getPrivateKey().getRaw()
-        );
+        byte[] retEncrypt;
+        try {
+            retEncrypt = CryptoUtil.cryptoBoxAfterNm(nonce, message.getBytes(), sharedKey);
+        } finally {
+            Arrays.fill(sharedKey, (byte) 0);
+        }
 
         byte[] ret = new byte[retEncrypt.length + nonce.length];
         System.arraycopy(retEncrypt, 0, ret, 0, retEncrypt.length);
@@ -116,7 +132,7 @@ public class Account {
     }
 
     public byte[] decrypt(Account sender, byte[] ciphertext) {
-        if (encrypt == null || encrypt.getPrivateKey() == null) {
+        if (encryptPrivateKey == null) {
             throw new RuntimeException("Unable to decrypt message; no secret encryption key");
         }
         if (sender.encrypt == null || sender.encrypt.getPublicKey() == null) {
@@ -129,12 +145,51 @@ public class Account {
         byte[] nonce = new byte[24];
         System.arraycopy(ciphertext, ciphertext.length - 24, nonce, 0, 24);
 
-        return CryptoUtil.cryptoBoxOpen(
-                nonce,
-                encryptedMessage,
-                encrypt.getPublicKey().getRaw(),
-                sender.encrypt.getPrivateKey().getRaw()
-        );
+        byte[] sharedKey = sharedKey(sender);
+        try {
+            return CryptoUtil.cryptoBoxOpenAfterNm(nonce, encryptedMessage, sharedKey);
+        } finally {
+            Arrays.fill(sharedKey, (byte) 0);
+        }
+    }
+
+    // wipes the cached shared keys, e.g. when keys are rotated
+    public void clear() {
+        synchronized (sharedKeys) {
+            for (byte[] sharedKey : sharedKeys.values()) Arrays.fill(sharedKey, (byte) 0);
+            sharedKeys.clear();
+        }
+    }
+
+    int sharedKeyCount() {
+        synchronized (sharedKeys) {
+            return sharedKeys.size();
+        }
+    }
+
+    // a copy of the cached key, which the caller wipes after use; an evicted key may be wiped at any time
+    private byte[] sharedKey(Account other) {
+        ByteBuffer otherPublicKey = ByteBuffer.wrap(other.encrypt.getPublicKey().getRaw());
+
+        synchronized (sharedKeys) {
+            byte[] sharedKey = sharedKeys.get(otherPublicKey);
+            if (sharedKey != null) return sharedKey.clone();
+        }
+
+        byte[] sharedKey = CryptoUtil.cryptoBoxSharedKey(otherPublicKey.array(), encryptPrivateKey);
+
+        synchronized (sharedKeys) {
+            byte[] previous = sharedKeys.put(otherPublicKey, sharedKey);
+            if (previous != null) Arrays.fill(previous, (byte) 0);
+
+            Iterator<byte[]> eldest = sharedKeys.values().iterator();
+            while (sharedKeys.size() > MAX_SHARED_KEYS) {
+                Arrays.fill(eldest.next(), (byte) 0);
+                eldest.remove();
+            }
+
+            return sharedKey.clone();
+        }
     }
 
     protected byte[] getNonce() {
@@ -113,20 +113,19 @@ public class AccountFactory {
 
     public Account create(KeyPair sign) {
         KeyPair signKeys = calcKeys(sign);
-        KeyPair encryptKeys = calcKeys(CryptoUtil.signToEncryptKeyPair(sign));
+
+        // keys converted from a verified sign key pair always match, no need to recalculate them
+        KeyPair encryptKeys = CryptoUtil.signToEncryptKeyPair(signKeys);
         Address address = createAddress(signKeys.getPublicKey());
 
-        return create(signKeys, encryptKeys, address);
+        return new Account(address, encryptKeys, signKeys);
     }
 
     public Account create(PrivateKey signPrivateKey) {
         if (signPrivateKey.getType() == Key.KeyType.CURVE25519)
             throw new IllegalArgumentException("Private key should not be encrypting of type Curve25519");
-        KeyPair signKeys = calcKeys(signPrivateKey);
-        KeyPair encryptKeys = calcKeys(CryptoUtil.signToEncryptKeyPair(signKeys));
-        Address address = createAddress(signKeys.getPublicKey());
 
-        return create(signKeys, encryptKeys, address);
+        return create(new KeyPair(null, signPrivateKey));
     }
 
     public Account createFromSeed(byte[] seedText) {
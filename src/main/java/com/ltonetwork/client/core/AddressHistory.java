@@ -0,0 +1,138 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Lazily iterates over the transactions of an address, newest first, a page at a time using the `after` cursor.
+// The next page is fetched and decoded in the background while the current one is consumed, so at most two pages
+// are held in memory. Transactions of a type this library has no class for are skipped.
+public class AddressHistory implements Iterator<Transaction>, AutoCloseable {
+    private final Function<String, Page> pageLoader;
+    private final ExecutorService executor;
+
+    private Iterator<Transaction> current = Collections.emptyIterator();
+    private CompletableFuture<Page> next;
+    private boolean started;
+    private boolean closed;
+
+    public AddressHistory(PublicNode node, String address, int pageSize) {
+        this(after -> fetch(node, address, pageSize, after), pageSize);
+    }
+
+    public AddressHistory(PublicNode node, String address) {
+        this(node, address, 100);
+    }
+
+    // loads the page after the given transaction id (null for the first page); used for testing
+    AddressHistory(Function<String, Page> pageLoader, int pageSize) {
+        if (pageSize < 1) throw new InvalidArgumentException("Page size should be at least 1");
+
+        this.pageLoader = pageLoader;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "lto-address-history");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean hasNext() {
+        if (closed) return false;
+        if (!started) {
+            started = true;
+            next = load(null);
+        }
+
+        while (!current.hasNext()) {
+            if (next == null) {
+                close();
+                return false;
+            }
+
+            Page page = await(next);
+            // a short page is the last one
+            next = page.full ? load(page.lastId) : null;
+            current = page.transactions.iterator();
+        }
+
+        return true;
+    }
+
+    public Transaction next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current.next();
+    }
+
+    public Stream<Transaction> stream() {
+        Spliterator<Transaction> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    public void close() {
+        closed = true;
+        if (next != null) next.cancel(true);
+        next = null;
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Page> load(String after) {
+        return CompletableFuture.supplyAsync(() -> pageLoader.apply(after), executor);
+    }
+
+    private Page await(CompletableFuture<Page> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            close();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static Page fetch(PublicNode node, String address, int pageSize, String after) {
+        JsonObject array = node.getAddressTransactions(address, pageSize, after);
+        List<Transaction> transactions = new ArrayList<>(array.length());
+        String lastId = null;
+
+        for (int i = 0; i < array.length(); i++) {
+            JsonObject json = array.getJsonObject(i);
+            lastId = json.getString("id");
+
+            try {
+                transactions.add(node.toTransaction(json, "/transactions/address"));
+            } catch (InvalidArgumentException e) {
+                // unknown transaction type
+            }
+        }
+
+        return new Page(transactions, lastId, array.length() >= pageSize);
+    }
+
+    static class Page {
+        final List<Transaction> transactions;
+        // cursor for the next page
+        final String lastId;
+        final boolean full;
+
+        Page(List<Transaction> transactions, String lastId, boolean full) {
+            this.transactions = transactions;
+            this.lastId = lastId;
+            this.full = full;
+        }
+    }
+}
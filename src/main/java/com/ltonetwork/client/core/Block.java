@@ -0,0 +1,76 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.types.JsonObject;
+
+import java.util.Collections;
+import java.util.List;
+
+public class Block {
+    private final int height;
+    private final byte version;
+    private final long timestamp;
+    private final String reference;
+    private final String generator;
+    private final String signature;
+    private final List<Transaction> transactions;
+    private final List<JsonObject> undecodedTransactions;
+
+    public Block(int height, byte version, long timestamp, String reference, String generator, String signature,
+                 List<Transaction> transactions, List<JsonObject> undecodedTransactions) {
+        this.height = height;
+        this.version = version;
+        this.timestamp = timestamp;
+        this.reference = reference;
+        this.generator = generator;
+        this.signature = signature;
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.undecodedTransactions = Collections.unmodifiableList(undecodedTransactions);
+    }
+
+    // transactions of a type this library doesn't know are kept as json in undecodedTransactions
+    public Block(JsonObject json, List<Transaction> transactions, List<JsonObject> undecodedTransactions) {
+        this(
+                Integer.parseInt(json.get("height").toString()),
+                Byte.parseByte(json.get("version").toString()),
+                Long.parseLong(json.get("timestamp").toString()),
+                json.has("reference") ? json.get("reference").toString() : null,
+                json.get("generator").toString(),
+                json.get("signature").toString(),
+                transactions,
+                undecodedTransactions
+        );
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public String getGenerator() {
+        return generator;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public List<JsonObject> getUndecodedTransactions() {
+        return undecodedTransactions;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.JsonObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Iterates over the blocks in a height range (inclusive), in height order. Up to `concurrency` pages of blocks are
+// fetched ahead, and the transactions of fetched pages are decoded in parallel on the decode executor. At most
+// `concurrency` pages are held besides the one being iterated, which bounds memory. The fetch threads stop when the
+// last block has been iterated, a page fails or the stream is closed; use try-with-resources when the stream may not
+// be iterated to the end.
+public class BlockStream implements Iterator<Block>, AutoCloseable {
+    // the node returns at most 100 blocks per request
+    public static final int MAX_PAGE_SIZE = 100;
+    // number of transactions decoded per task
+    private static final int DECODE_CHUNK = 32;
+
+    private final BiFunction<Integer, Integer, CompletableFuture<List<Block>>> pageLoader;
+    private final int toHeight;
+    private final int pageSize;
+    private final int concurrency;
+    private final ExecutorService fetchExecutor;
+    private final Deque<CompletableFuture<List<Block>>> pages = new ArrayDeque<>();
+
+    private int nextHeight;
+    private Iterator<Block> current = Collections.emptyIterator();
+    private boolean closed;
+
+    public BlockStream(PublicNode node, int fromHeight, int toHeight, int pageSize, int concurrency, Executor decodeExecutor) {
+        this(null, fromHeight, toHeight, pageSize, concurrency, node, decodeExecutor);
+    }
+
+    public BlockStream(PublicNode node, int fromHeight, int toHeight) {
+        this(node, fromHeight, toHeight, 50, 4, ForkJoinPool.commonPool());
+    }
+
+    // loads the blocks between two heights (inclusive); used for testing
+    BlockStream(BiFunction<Integer, Integer, CompletableFuture<List<Block>>> pageLoader, int fromHeight, int toHeight,
+                int pageSize, int concurrency) {
+        this(pageLoader, fromHeight, toHeight, pageSize, concurrency, null, null);
+    }
+
+    private BlockStream(BiFunction<Integer, Integer, CompletableFuture<List<Block>>> pageLoader, int fromHeight,
+                        int toHeight, int pageSize, int concurrency, PublicNode node, Executor decodeExecutor) {
+        if (fromHeight < 1 || toHeight < fromHeight) throw new InvalidArgumentException("Invalid height range");
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+            throw new InvalidArgumentException("Page size should be between 1 and " + MAX_PAGE_SIZE);
+        if (concurrency < 1) throw new InvalidArgumentException("Concurrency should be at least 1");
+
+        this.nextHeight = fromHeight;
+        this.toHeight = toHeight;
+        this.pageSize = pageSize;
+        this.concurrency = concurrency;
+
+        if (pageLoader != null) {
+            this.fetchExecutor = null;
+            this.pageLoader = pageLoader;
+        } else {
+            this.fetchExecutor = Executors.newFixedThreadPool(concurrency, r -> {
+                Thread thread = new Thread(r, "lto-block-stream");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.pageLoader = (from, to) -> CompletableFuture
+                    .supplyAsync(() -> node.getBlockSequence(from, to), fetchExecutor)
+                    .thenCompose(array -> decode(node, array, decodeExecutor));
+        }
+    }
+
+    public boolean hasNext() {
+        if (closed) return false;
+
+        fill();
+        while (!current.hasNext()) {
+            if (pages.isEmpty()) {
+                close();
+                return false;
+            }
+
+            try {
+                current = await(pages.poll()).iterator();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            fill();
+        }
+
+        return true;
+    }
+
+    public Block next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current.next();
+    }
+
+    public Stream<Block> stream() {
+        Spliterator<Block> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    public void close() {
+        closed = true;
+        pages.forEach(page -> page.cancel(true));
+        pages.clear();
+        if (fetchExecutor != null) fetchExecutor.shutdownNow();
+    }
+
+    private void fill() {
+        while (pages.size() < concurrency && nextHeight <= toHeight) {
+            int to = (int) Math.min(toHeight, (long) nextHeight + pageSize - 1);
+            pages.add(pageLoader.apply(nextHeight, to));
+            nextHeight = to + 1;
+        }
+    }
+
+    private List<Block> await(CompletableFuture<List<Block>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static CompletableFuture<List<Block>> decode(PublicNode node, JsonObject array, Executor executor) {
+        List<CompletableFuture<Block>> blocks = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) blocks.add(decodeBlock(node, array.getJsonObject(i), executor));
+
+        return CompletableFuture.allOf(blocks.toArray(new CompletableFuture[0])).thenApply(v -> {
+            List<Block> result = new ArrayList<>(blocks.size());
+            for (CompletableFuture<Block> block : blocks) result.add(block.join());
+            return result;
+        });
+    }
+
+    private static CompletableFuture<Block> decodeBlock(PublicNode node, JsonObject json, Executor executor) {
+        JsonObject transactions = json.getJsonArray("transactions");
+        List<CompletableFuture<List<Object>>> chunks = new ArrayList<>();
+
+        for (int start = 0; start < transactions.length(); start += DECODE_CHUNK) {
+            int from = start;
+            int to = Math.min(transactions.length(), start + DECODE_CHUNK);
+            chunks.add(CompletableFuture.supplyAsync(() -> decodeTransactions(node, transactions, from, to), executor));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(v -> {
+            List<Transaction> decoded = new ArrayList<>(transactions.length());
+            List<JsonObject> undecoded = new ArrayList<>();
+
+            for (CompletableFuture<List<Object>> chunk : chunks) {
+                for (Object tx : chunk.join()) {
+                    if (tx instanceof Transaction) decoded.add((Transaction) tx);
+                    else undecoded.add((JsonObject) tx);
+                }
+            }
+
+            return new Block(json, decoded, undecoded);
+        });
+    }
+
+    // a decoded Transaction, or the json if the type is unknown
+    private static List<Object> decodeTransactions(PublicNode node, JsonObject transactions, int from, int to) {
+        List<Object> result = new ArrayList<>(to - from);
+
+        for (int i = from; i < to; i++) {
+            JsonObject json = transactions.getJsonObject(i);
+            try {
+                result.add(node.toTransaction(json, "/blocks/seq"));
+            } catch (InvalidArgumentException e) {
+                result.add(json);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.JsonObject;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+// Polls the unconfirmed pool of a node and notifies listeners of the transactions that were added and removed
+// since the previous poll. Only transactions that weren't in the previous snapshot are decoded.
+// The interval halves when the pool changed and doubles when it didn't (or the poll failed), between the bounds.
+public class MempoolWatcher implements AutoCloseable {
+    private final PublicNode node;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private Map<String, Transaction> snapshot = new LinkedHashMap<>();
+    private volatile long intervalMillis;
+    private ScheduledExecutorService scheduler;
+
+    public MempoolWatcher(PublicNode node, Duration minInterval, Duration maxInterval) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0)
+            throw new IllegalArgumentException("Expected 0 < minInterval <= maxInterval");
+
+        this.node = node;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.maxIntervalMillis = maxInterval.toMillis();
+        this.intervalMillis = minIntervalMillis;
+    }
+
+    public MempoolWatcher(PublicNode node) {
+        this(node, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) throw new IllegalStateException("Mempool watcher is already started");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lto-mempool-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.schedule(this::run, 0, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    // returns true if the pool changed
+    public boolean poll() {
+        JsonObject array = node.getUnconfirmedArray();
+        List<String> ids = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) ids.add(array.getJsonObject(i).getString("id"));
+
+        return update(ids, i -> node.toTransaction(array.getJsonObject(i), "/transactions/unconfirmed"));
+    }
+
+    public synchronized Collection<Transaction> getSnapshot() {
+        return Collections.unmodifiableCollection(new ArrayList<>(snapshot.values()));
+    }
+
+    public synchronized boolean contains(String id) {
+        return snapshot.containsKey(id);
+    }
+
+    public Duration getInterval() {
+        return Duration.ofMillis(intervalMillis);
+    }
+
+    // decoder creates the transaction at the given index; it's only called for new ids
+    boolean update(List<String> ids, IntFunction<Transaction> decoder) {
+        List<Transaction> added = new ArrayList<>();
+        List<Transaction> removed;
+
+        synchronized (this) {
+            Map<String, Transaction> previous = snapshot;
+            Map<String, Transaction> current = new LinkedHashMap<>();
+
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                Transaction transaction = previous.remove(id);
+
+                if (transaction == null) {
+                    try {
+                        transaction = decoder.apply(i);
+                    } catch (InvalidArgumentException e) {
+                        continue; // unknown transaction type
+                    }
+                    added.add(transaction);
+                }
+
+                current.put(id, transaction);
+            }
+
+            removed = new ArrayList<>(previous.values());
+            snapshot = current;
+        }
+
+        boolean changed = !added.isEmpty() || !removed.isEmpty();
+        if (changed) {
+            for (Listener listener : listeners) listener.onChange(added, removed);
+        }
+
+        return changed;
+    }
+
+    private void run() {
+        boolean changed;
+        try {
+            changed = poll();
+        } catch (RuntimeException e) {
+            changed = false;
+        }
+
+        intervalMillis = changed
+                ? Math.max(minIntervalMillis, intervalMillis / 2)
+                : Math.min(maxIntervalMillis, intervalMillis * 2);
+
+        synchronized (this) {
+            if (scheduler != null) scheduler.schedule(this::run, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public interface Listener {
+        // removed transactions were either confirmed or dropped by the node
+        void onChange(List<Transaction> added, List<Transaction> removed);
+    }
+}
@@ -0,0 +1,521 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+// Durable outbox of signed transactions, so a transaction is neither lost nor signed again when the process dies
+// between signing and confirmation. Transactions and their state changes are appended to memory-mapped segment
+// files. Appending is a copy into the mapping; callers that append at the same time share one fsync (group commit).
+// On open, the segments are scanned to find the unfinished transactions, which recover broadcasts again.
+// A segment is deleted once it and all older segments only hold finished transactions.
+//
+// segment file: header (16b) | record*
+// header: magic (8b) | version (4b) | reserved (4b)
+// record: length (4b, 0 = end) | crc32 (4b) | state (1b) | transaction id (32b) | broadcast json (pending only)
+public class Outbox implements AutoCloseable {
+    public enum State {PENDING, BROADCAST, CONFIRMED, FAILED}
+
+    private static final long MAGIC = 0x4c544f4f55544258L; // LTOOUTBX
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int ID_LENGTH = 32;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<TransactionId, Entry> unfinished = new LinkedHashMap<>();
+
+    // group commit; appended and synced count records
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private long appended;
+    private long synced;
+    private boolean syncing;
+
+    public Outbox(Path directory, int segmentSize) {
+        if (segmentSize < HEADER_SIZE + RECORD_HEADER_SIZE + 1 + ID_LENGTH)
+            throw new InvalidArgumentException("Segment size is too small");
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        try {
+            Files.createDirectories(directory);
+            for (Path file : segmentFiles(directory)) segments.add(Segment.open(file, number(file)));
+            for (Segment segment : segments) scan(segment);
+            if (segments.isEmpty()) segments.add(Segment.create(segmentFile(0), 0, segmentSize));
+            deleteFinishedSegments();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Unable to open outbox " + directory, e);
+        }
+    }
+
+    public Outbox(Path directory) {
+        this(directory, 16 * 1024 * 1024);
+    }
+
+    // returns false if the transaction is already in the outbox; the transaction is on disk when this returns
+    public boolean add(Transaction transaction) {
+        if (!transaction.isSigned()) throw new BadMethodCallException("Transaction is not signed");
+
+        return add(transaction.getId(), PublicNode.toBroadcastJson(transaction));
+    }
+
+    boolean add(TransactionId id, String json) {
+        long sequence;
+        synchronized (this) {
+            if (unfinished.containsKey(id)) return false;
+
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            Segment segment = segmentFor(RECORD_HEADER_SIZE + 1 + ID_LENGTH + bytes.length);
+            int offset = segment.append(State.PENDING, id.getBytes(), bytes);
+            unfinished.put(id, new Entry(segment, offset, State.PENDING));
+            segment.unfinished++;
+            sequence = ++appended;
+        }
+
+        sync(sequence);
+        return true;
+    }
+
+    // adds the transaction and broadcasts it; a transaction the node rejects is marked as failed
+    public Transaction broadcast(PublicNode node, Transaction transaction) {
+        add(transaction);
+
+        try {
+            Transaction response = node.broadcast(transaction);
+            markBroadcast(transaction.getId());
+            return response;
+        } catch (HttpResponseException e) {
+            if (!e.isRetryable()) rejected(transaction.getId(), node::isConfirmed, node::isUnconfirmed);
+            throw e;
+        }
+    }
+
+    public void markBroadcast(TransactionId id) {
+        setState(id, State.BROADCAST);
+    }
+
+    public void markConfirmed(TransactionId id) {
+        setState(id, State.CONFIRMED);
+    }
+
+    public void markFailed(TransactionId id) {
+        setState(id, State.FAILED);
+    }
+
+    // null if the transaction isn't in the outbox or is finished
+    public synchronized State getState(TransactionId id) {
+        Entry entry = unfinished.get(id);
+        return entry == null ? null : entry.state;
+    }
+
+    // oldest first
+    public synchronized List<TransactionId> getUnfinished() {
+        return new ArrayList<>(unfinished.keySet());
+    }
+
+    public synchronized int size() {
+        return unfinished.size();
+    }
+
+    // broadcasts the unfinished transactions that aren't confirmed or in the node's pool yet; the signed transaction is
+    // sent again, so it keeps its id and the node doesn't apply it twice
+    public Report recover(PublicNode node) {
+        return recover(node::broadcastJson, node::isConfirmed, node::isUnconfirmed);
+    }
+
+    Report recover(Consumer<String> broadcaster, Predicate<TransactionId> confirmed, Predicate<TransactionId> pooled) {
+        Report report = new Report();
+
+        for (TransactionId id : getUnfinished()) {
+            String json;
+            synchronized (this) {
+                Entry entry = unfinished.get(id);
+                if (entry == null) continue;
+                json = entry.segment.readJson(entry.offset);
+            }
+
+            try {
+                // a pending transaction may have been broadcast just before the process died
+                if (confirmed.test(id)) {
+                    markConfirmed(id);
+                    report.confirmed++;
+                    continue;
+                }
+                if (pooled.test(id)) {
+                    markBroadcast(id);
+                    report.pooled++;
+                    continue;
+                }
+
+                broadcaster.accept(json);
+                markBroadcast(id);
+                report.broadcast++;
+            } catch (HttpResponseException e) {
+                if (e.isRetryable()) {
+                    report.unfinished++;
+                    continue;
+                }
+
+                // the node also rejects a transaction it already has
+                State state = rejected(id, confirmed, pooled);
+                if (state == State.CONFIRMED) report.confirmed++;
+                else if (state == State.BROADCAST) report.pooled++;
+                else if (state == State.FAILED) report.failed++;
+                else report.unfinished++;
+            } catch (RuntimeException e) {
+                report.unfinished++;
+            }
+        }
+
+        return report;
+    }
+
+    public void close() {
+        synchronized (this) {
+            for (Segment segment : segments) segment.close();
+            segments.clear();
+        }
+    }
+
+    // marks a transaction the node rejected; it's only failed if the node doesn't have it already. Returns null, and
+    // leaves the state as is, if the node can't tell.
+    private State rejected(TransactionId id, Predicate<TransactionId> confirmed, Predicate<TransactionId> pooled) {
+        State state;
+        try {
+            state = confirmed.test(id) ? State.CONFIRMED : pooled.test(id) ? State.BROADCAST : State.FAILED;
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        setState(id, state);
+        return state;
+    }
+
+    private void setState(TransactionId id, State state) {
+        long sequence;
+        synchronized (this) {
+            Entry entry = unfinished.get(id);
+            if (entry == null) throw new InvalidArgumentException("Transaction " + id + " is not in the outbox");
+            if (entry.state == state) return;
+
+            segmentFor(RECORD_HEADER_SIZE + 1 + ID_LENGTH).append(state, id.getBytes(), new byte[0]);
+            apply(id, entry, state);
+            sequence = ++appended;
+        }
+
+        sync(sequence);
+    }
+
+    private void apply(TransactionId id, Entry entry, State state) {
+        entry.state = state;
+        if (state != State.CONFIRMED && state != State.FAILED) return;
+
+        unfinished.remove(id);
+        entry.segment.unfinished--;
+    }
+
+    // the first caller forces the mapping, callers that append meanwhile wait and are covered by the next force
+    private void sync(long sequence) {
+        syncLock.lock();
+        try {
+            while (synced < sequence) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+
+                syncing = true;
+                long target;
+                Segment segment;
+                synchronized (this) {
+                    target = appended;
+                    segment = segments.get(segments.size() - 1);
+                }
+
+                syncLock.unlock();
+                try {
+                    // older segments are forced when the next one is started
+                    segment.buffer.force();
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    synced = Math.max(synced, target);
+                    syncDone.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+
+        synchronized (this) {
+            deleteFinishedSegments();
+        }
+    }
+
+    private Segment segmentFor(int length) {
+        if (HEADER_SIZE + length > segmentSize)
+            throw new InvalidArgumentException("Transaction doesn't fit in an outbox segment of " + segmentSize + " bytes");
+
+        // a segment of an earlier run may have another size
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.position + length <= segment.size) return segment;
+
+        try {
+            segment.buffer.force();
+            Segment next = Segment.create(segmentFile(segment.number + 1), segment.number + 1, segmentSize);
+            segments.add(next);
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create outbox segment", e);
+        }
+    }
+
+    private void scan(Segment segment) {
+        int position = HEADER_SIZE;
+
+        while (position + RECORD_HEADER_SIZE <= segment.size) {
+            int length = segment.buffer.getInt(position);
+            if (length < 1 + ID_LENGTH || position + RECORD_HEADER_SIZE + length > segment.size) break;
+            if (segment.buffer.getInt(position + 4) != segment.crc(position + RECORD_HEADER_SIZE, length)) break;
+
+            int stateIndex = segment.buffer.get(position + RECORD_HEADER_SIZE);
+            if (stateIndex < 0 || stateIndex >= State.values().length) break;
+
+            State state = State.values()[stateIndex];
+            TransactionId id = new TransactionId(segment.read(position + RECORD_HEADER_SIZE + 1, ID_LENGTH));
+            Entry entry = unfinished.get(id);
+
+            if (state == State.PENDING && entry == null) {
+                unfinished.put(id, new Entry(segment, position, state));
+                segment.unfinished++;
+            } else if (state != State.PENDING && entry != null) {
+                apply(id, entry, state);
+            }
+
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        // a torn record at the end was never synced; new records overwrite it
+        segment.position = position;
+        segment.clear(position);
+    }
+
+    private void deleteFinishedSegments() {
+        while (segments.size() > 1 && segments.get(0).unfinished == 0) {
+            Segment segment = segments.remove(0);
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                // retried when the outbox is opened again
+            }
+        }
+    }
+
+    private Path segmentFile(long n) {
+        return directory.resolve(String.format("outbox-%010d.log", n));
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("outbox-".length(), name.length() - ".log".length()));
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "outbox-*.log")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static class Entry {
+        final Segment segment;
+        final int offset;
+        State state;
+
+        Entry(Segment segment, int offset, State state) {
+            this.segment = segment;
+            this.offset = offset;
+            this.state = state;
+        }
+    }
+
+    private static class Segment {
+        final Path file;
+        final long number;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int size;
+        int position = HEADER_SIZE;
+        int unfinished;
+
+        private Segment(Path file, long number, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.size = buffer.capacity();
+        }
+
+        static Segment create(Path file, long number, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putLong(0, MAGIC);
+            buffer.putInt(8, VERSION);
+            return new Segment(file, number, channel, buffer);
+        }
+
+        static Segment open(Path file, long number) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                channel.close();
+                throw new IOException("Not an outbox segment: " + file);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+                channel.close();
+                throw new IOException("Not an outbox segment: " + file);
+            }
+
+            return new Segment(file, number, channel, buffer);
+        }
+
+        // returns the offset of the record
+        int append(State state, byte[] id, byte[] json) {
+            int offset = position;
+            int length = 1 + ID_LENGTH + json.length;
+
+            buffer.put(offset + RECORD_HEADER_SIZE, (byte) state.ordinal());
+            write(offset + RECORD_HEADER_SIZE + 1, id);
+            write(offset + RECORD_HEADER_SIZE + 1 + ID_LENGTH, json);
+            buffer.putInt(offset + 4, crc(offset + RECORD_HEADER_SIZE, length));
+            // the length marks the record as written, so it's written last
+            buffer.putInt(offset, length);
+
+            position += RECORD_HEADER_SIZE + length;
+            return offset;
+        }
+
+        String readJson(int offset) {
+            int length = buffer.getInt(offset) - 1 - ID_LENGTH;
+            return new String(read(offset + RECORD_HEADER_SIZE + 1 + ID_LENGTH, length), StandardCharsets.UTF_8);
+        }
+
+        int crc(int offset, int length) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset);
+            view.limit(offset + length);
+
+            CRC32 crc = new CRC32();
+            crc.update(view);
+            return (int) crc.getValue();
+        }
+
+        // zeroes the rest of the segment, so no stale record follows the new ones
+        void clear(int offset) {
+            byte[] zeros = new byte[4096];
+            for (int i = offset; i < size; i += zeros.length) {
+                int length = Math.min(zeros.length, size - i);
+                if (isZero(i, length)) continue;
+
+                ByteBuffer view = buffer.duplicate();
+                view.position(i);
+                view.put(zeros, 0, length);
+            }
+        }
+
+        private boolean isZero(int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer.get(i) != 0) return false;
+            }
+            return true;
+        }
+
+        // duplicates keep the shared buffer position untouched
+        private void write(int offset, byte[] bytes) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset);
+            view.put(bytes);
+        }
+
+        byte[] read(int offset, int length) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset);
+            byte[] bytes = new byte[length];
+            view.get(bytes);
+            return bytes;
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public static class Report {
+        private int broadcast;
+        private int confirmed;
+        private int pooled;
+        private int failed;
+        private int unfinished;
+
+        // broadcast again
+        public int getBroadcast() {
+            return broadcast;
+        }
+
+        // confirmed before the process stopped
+        public int getConfirmed() {
+            return confirmed;
+        }
+
+        // already in the unconfirmed pool of the node, so not broadcast again
+        public int getPooled() {
+            return pooled;
+        }
+
+        // rejected by the node
+        public int getFailed() {
+            return failed;
+        }
+
+        // still unfinished, e.g. because the node couldn't be reached
+        public int getUnfinished() {
+            return unfinished;
+        }
+    }
+}
@@ -1,23 +1,71 @@
 package com.ltonetwork.client.core;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ltonetwork.client.core.transaction.*;
 import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.exceptions.HttpResponseException;
 import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+import com.ltonetwork.client.metrics.MetricsRegistry;
+import com.ltonetwork.client.metrics.TransactionTimeline;
+import com.ltonetwork.client.metrics.events.ParseTransactionEvent;
 import com.ltonetwork.client.types.JsonObject;
+import com.ltonetwork.client.utils.CircuitBreaker;
+import com.ltonetwork.client.utils.ConcurrencyLimiter;
+import com.ltonetwork.client.utils.ByteBufferPool;
 import com.ltonetwork.client.utils.HttpClientUtil;
+import com.ltonetwork.client.utils.PooledBody;
+import com.ltonetwork.client.utils.RateLimiter;
+import com.ltonetwork.client.utils.SingleFlight;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 public class PublicNode {
+    // broadcast bodies; an ObjectMapper is thread-safe once configured
+    private static final ByteBufferPool bodyPool = new ByteBufferPool();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // metrics label of get, post and delete with a path given by the caller
+    private static final String CUSTOM_ENDPOINT = "custom";
+    // runs the requests of the async methods, so they don't block the caller or the common pool
+    private static final ExecutorService defaultAsyncExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "lto-node-async");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final URI uri;
     private final String apiKey;
+    private final TransactionCache transactionCache;
+    private final SingleFlight<URI, HttpResponse<String>> inFlight = new SingleFlight<>();
+    private volatile CircuitBreaker circuitBreaker;
+    private volatile ConcurrencyLimiter concurrencyLimiter;
+    private volatile RateLimiter rateLimiter;
+    private volatile ScriptCache scriptCache;
+    private volatile Executor asyncExecutor = defaultAsyncExecutor;
+    private final Map<EndpointClass, RateLimiter> endpointRateLimiters = new ConcurrentHashMap<>();
 
-    public PublicNode(URI uri, String apiKey) {
+    public PublicNode(URI uri, String apiKey, TransactionCache transactionCache) {
         this.uri = uri;
         this.apiKey = apiKey;
+        this.transactionCache = transactionCache;
+    }
+
+    public PublicNode(URI uri, String apiKey) {
+        this(uri, apiKey, null);
     }
 
     public URI getUri() {
@@ -28,101 +76,421 @@ public class PublicNode {
         return apiKey;
     }
 
+    public TransactionCache getTransactionCache() {
+        return transactionCache;
+    }
+
+    public ScriptCache getScriptCache() {
+        return scriptCache;
+    }
+
+    public void setScriptCache(ScriptCache scriptCache) {
+        this.scriptCache = scriptCache;
+    }
+
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    // applies to all requests to this node
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public RateLimiter getRateLimiter(EndpointClass endpointClass) {
+        return endpointRateLimiters.get(endpointClass);
+    }
+
+    // applies on top of the node rate limiter
+    public void setRateLimiter(EndpointClass endpointClass, RateLimiter rateLimiter) {
+        if (rateLimiter == null) endpointRateLimiters.remove(endpointClass);
+        else endpointRateLimiters.put(endpointClass, rateLimiter);
+    }
+
     public Transaction getTransaction(String id) {
-        HttpResponse<String> resp = HttpClientUtil.get(URI.create(String.format("%s/transactions/info/%s", this.uri.toString(), id)));
-        return getTransactionObject(new JsonObject(resp.body()));
+        Transaction cached = cachedTransaction(id);
+        return cached != null ? cached : fetchTransaction(id, true);
+    }
+
+    public CompletableFuture<Transaction> getTransactionAsync(String id) {
+        Transaction cached = cachedTransaction(id);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        return async(EndpointClass.READ, () -> fetchTransaction(id, false));
+    }
+
+    private Transaction cachedTransaction(String id) {
+        if (transactionCache == null) return null;
+
+        String cached = transactionCache.get(id);
+        return cached != null ? getTransactionObject(new JsonObject(cached), cached.length(), "/transactions/info") : null;
+    }
+
+    private Transaction fetchTransaction(String id, boolean permit) {
+        HttpResponse<String> resp = get("/transactions/info", URI.create(String.format("%s/transactions/info/%s", this.uri.toString(), id)), permit);
+        JsonObject json = new JsonObject(resp.body());
+
+        // only confirmed transactions are final
+        if (transactionCache != null && json.has("height")) transactionCache.put(id, resp.body());
+
+        return getTransactionObject(json, resp.body().length(), "/transactions/info");
+    }
+
+    // the first time the transaction is seen in a block, the height is recorded on its timeline
+    public boolean isConfirmed(Transaction transaction) {
+        if (transaction.getId() == null) throw new BadMethodCallException("Transaction is not signed");
+
+        int height = getConfirmedHeight(transaction.getId());
+        if (height < 0) return false;
+
+        TransactionTimeline timeline = transaction.getTimeline();
+        if (timeline != null) timeline.recordConfirmed(height);
+        return true;
+    }
+
+    public boolean isConfirmed(TransactionId id) {
+        return getConfirmedHeight(id) >= 0;
+    }
+
+    // whether the transaction is in the unconfirmed pool of the node
+    public boolean isUnconfirmed(TransactionId id) {
+        try {
+            get("/transactions/unconfirmed/info", URI.create(String.format("%s/transactions/unconfirmed/info/%s", this.uri.toString(), id)));
+            return true;
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 404) return false;
+            throw e;
+        }
+    }
+
+    // -1 if the transaction isn't in a block (yet)
+    private int getConfirmedHeight(TransactionId transactionId) {
+        String id = transactionId.toString();
+        HttpResponse<String> resp;
+        try {
+            resp = get("/transactions/info", URI.create(String.format("%s/transactions/info/%s", this.uri.toString(), id)));
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 404) return -1;
+            throw e;
+        }
+
+        JsonObject json = new JsonObject(resp.body());
+        if (!json.has("height")) return -1;
+
+        if (transactionCache != null) transactionCache.put(id, resp.body());
+        return Integer.parseInt(json.get("height").toString());
+    }
+
+    public List<Transaction> getUnconfirmed() {
+        JsonObject array = getUnconfirmedArray();
+        List<Transaction> transactions = new ArrayList<>(array.length());
+
+        for (int i = 0; i < array.length(); i++) {
+            transactions.add(toTransaction(array.getJsonObject(i), "/transactions/unconfirmed"));
+        }
+
+        return transactions;
+    }
+
+    // the unconfirmed pool as json array, so MempoolWatcher only has to decode the transactions it hasn't seen
+    JsonObject getUnconfirmedArray() {
+        return getArray("/transactions/unconfirmed", "/transactions/unconfirmed");
     }
 
-    public Transaction getUnconfirmed() {
-        HttpResponse<String> resp = HttpClientUtil.get(URI.create(String.format("%s/transactions/unconfirmed", this.uri.toString())));
-        return getTransactionObject(new JsonObject(resp.body()));
+    // the stream fetches on its own threads until it's iterated to the end or closed
+    public BlockStream getBlocks(int fromHeight, int toHeight) {
+        return new BlockStream(this, fromHeight, toHeight);
     }
 
-    public Transaction compile(String script) {
-        HttpResponse<String> resp = HttpClientUtil.postScript(URI.create(String.format("%s/utils/script/compile", this.uri)), script);
+    // blocks from and to the given height (inclusive), the node returns at most 100 blocks per request
+    JsonObject getBlockSequence(int fromHeight, int toHeight) {
+        return getArray(String.format("/blocks/seq/%d/%d", fromHeight, toHeight), "/blocks/seq");
+    }
+
+    public AddressHistory getTransactionHistory(String address) {
+        return new AddressHistory(this, address);
+    }
+
+    // the node wraps the page in another array
+    JsonObject getAddressTransactions(String address, int limit, String after) {
+        String path = String.format("/transactions/address/%s/limit/%d", address, limit);
+        if (after != null) path += "?after=" + after;
+
+        JsonObject array = getArray(path, "/transactions/address");
+        return array.length() > 0 && array.getArray().get(0) instanceof List ? array.getJsonArray(0) : array;
+    }
+
+    private JsonObject getArray(String path, String endpoint) {
+        HttpResponse<String> resp = get(endpoint, URI.create(uri.toString() + path));
+        return new JsonObject(resp.body(), true);
+    }
+
+    Transaction toTransaction(JsonObject json, String endpoint) {
+        return getTransactionObject(json, 0, endpoint);
+    }
+
+    // a script that was compiled before is taken from the script cache, without a request
+    public CompiledScript compile(String script) {
+        CompiledScript cached = cachedCompile(script);
+        if (cached != null) return cached;
+
+        permit(EndpointClass.COMPILE);
+        return postScript(script);
+    }
+
+    public CompletableFuture<CompiledScript> compileAsync(String script) {
+        CompiledScript cached = cachedCompile(script);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        return async(EndpointClass.COMPILE, () -> postScript(script));
+    }
 
-        return getTransactionObject(new JsonObject(resp.body()));
+    private CompiledScript cachedCompile(String script) {
+        ScriptCache cache = scriptCache;
+        return cache != null ? cache.get(script) : null;
+    }
+
+    // the response has the compiled script, its complexity and the extra fee; it isn't a transaction
+    private CompiledScript postScript(String script) {
+        ScriptCache cache = scriptCache;
+        HttpResponse<String> resp = send("POST", "/utils/script/compile", () -> HttpClientUtil.postScript(URI.create(String.format("%s/utils/script/compile", this.uri)), script));
+        CompiledScript compiled = new CompiledScript(new JsonObject(resp.body()));
+
+        if (cache != null) cache.put(script, compiled);
+
+        return compiled;
     }
 
     public Transaction broadcast(Transaction transaction) {
         if (!transaction.isSigned()) throw new BadMethodCallException("Transaction is not signed");
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        Map<String, Object> tx = objectMapper.convertValue(transaction, Map.class);
+        permit(EndpointClass.BROADCAST);
+        return postTransaction(transaction);
+    }
+
+    public CompletableFuture<Transaction> broadcastAsync(Transaction transaction) {
+        if (!transaction.isSigned()) throw new BadMethodCallException("Transaction is not signed");
+
+        return async(EndpointClass.BROADCAST, () -> postTransaction(transaction));
+    }
+
+    // the json is written straight into pooled buffers and sent from them. HttpClientUtil.post releases the body once
+    // it's called; it's only released here if the request isn't sent, e.g. when the circuit breaker is open.
+    private Transaction postTransaction(Transaction transaction) {
+        PooledBody body = new PooledBody(bodyPool);
+        AtomicBoolean posted = new AtomicBoolean();
+        try {
+            objectMapper.writeValue(body, transaction);
+            TransactionTimeline timeline = transaction.getTimeline();
+            record(timeline, TransactionTimeline.Stage.JSON_ENCODE);
+
+            HttpResponse<String> resp = send("POST", "/transactions/broadcast", () -> {
+                record(timeline, TransactionTimeline.Stage.HTTP_SEND);
+                posted.set(true);
+                return HttpClientUtil.post(URI.create(String.format("%s/transactions/broadcast", this.uri.toString())), body);
+            });
+            record(timeline, TransactionTimeline.Stage.ACK);
+
+            return getTransactionObject(resp.body(), "/transactions/broadcast");
+        } catch (IOException e) {
+            throw new InvalidArgumentException("Unable to serialize transaction: " + e.getMessage());
+        } finally {
+            if (!posted.get()) body.release();
+        }
+    }
+
+    private static void record(TransactionTimeline timeline, TransactionTimeline.Stage stage) {
+        if (timeline != null) timeline.record(stage);
+    }
+
+    // the json that is broadcast for a signed transaction
+    static String toBroadcastJson(Transaction transaction) {
+        try {
+            return objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException e) {
+            throw new InvalidArgumentException("Unable to serialize transaction: " + e.getMessage());
+        }
+    }
 
-        HttpResponse<String> resp = HttpClientUtil.post(URI.create(String.format("%s/transactions/broadcast", this.uri.toString())), tx);
+    // broadcasts a transaction that was serialized with toBroadcastJson, e.g. by the outbox after a restart
+    Transaction broadcastJson(String json) {
+        permit(EndpointClass.BROADCAST);
+        HttpResponse<String> resp = send("POST", "/transactions/broadcast",
+                () -> HttpClientUtil.postJson(URI.create(String.format("%s/transactions/broadcast", this.uri.toString())), json));
 
-        return getTransactionObject(new JsonObject(resp.body()));
+        return getTransactionObject(resp.body(), "/transactions/broadcast");
     }
 
+    // requests to an arbitrary path share one metrics label, as the path may contain ids
     public JsonObject get(String endpoint) {
-        HttpResponse<String> resp = HttpClientUtil.get(URI.create(uri.toString() + endpoint));
+        HttpResponse<String> resp = get(CUSTOM_ENDPOINT, URI.create(uri.toString() + endpoint), true);
         return new JsonObject(resp.body());
     }
 
+    public CompletableFuture<JsonObject> getAsync(String endpoint) {
+        return async(EndpointClass.READ, () -> new JsonObject(get(CUSTOM_ENDPOINT, URI.create(uri.toString() + endpoint), false).body()));
+    }
+
     public JsonObject get(String endpoint, Map<String, String> headers) {
-        HttpResponse<String> resp = HttpClientUtil.get(URI.create(uri.toString() + endpoint), headers);
+        permit(EndpointClass.READ);
+        HttpResponse<String> resp = send("GET", CUSTOM_ENDPOINT, () -> HttpClientUtil.get(URI.create(uri.toString() + endpoint), headers));
         return new JsonObject(resp.body());
     }
 
     public JsonObject post(String endpoint, Map<String, Object> params) {
-        HttpResponse<String> resp = HttpClientUtil.post(URI.create(uri.toString() + endpoint), params);
+        permit(EndpointClass.READ);
+        HttpResponse<String> resp = send("POST", CUSTOM_ENDPOINT, () -> HttpClientUtil.post(URI.create(uri.toString() + endpoint), params));
         return new JsonObject(resp.body());
     }
 
     public JsonObject post(String endpoint, Map<String, Object> params, Map<String, String> headers) {
-        HttpResponse<String> resp = HttpClientUtil.post(URI.create(uri.toString() + endpoint), params, headers);
+        permit(EndpointClass.READ);
+        HttpResponse<String> resp = send("POST", CUSTOM_ENDPOINT, () -> HttpClientUtil.post(URI.create(uri.toString() + endpoint), params, headers));
         return new JsonObject(resp.body());
     }
 
     public JsonObject delete(String endpoint) {
-        HttpResponse<String> resp = HttpClientUtil.delete(URI.create(uri.toString() + endpoint));
+        permit(EndpointClass.READ);
+        HttpResponse<String> resp = send("DELETE", CUSTOM_ENDPOINT, () -> HttpClientUtil.delete(URI.create(uri.toString() + endpoint)));
         return new JsonObject(resp.body());
     }
 
     public JsonObject delete(String endpoint, Map<String, String> headers) {
-        HttpResponse<String> resp = HttpClientUtil.delete(URI.create(uri.toString() + endpoint), headers);
+        permit(EndpointClass.READ);
+        HttpResponse<String> resp = send("DELETE", CUSTOM_ENDPOINT, () -> HttpClientUtil.delete(URI.create(uri.toString() + endpoint), headers));
         return new JsonObject(resp.body());
     }
 
-    private Transaction getTransactionObject(JsonObject json) {
-        Transaction ret;
-
-        switch ((int) json.get("type")) {
-            case 4:
-                ret = new Transfer(json);
-                break;
-            case 8:
-                ret = new Lease(json);
-                break;
-            case 9:
-                ret = new CancelLease(json);
-                break;
-            case 11:
-                ret = new MassTransfer(json);
-                break;
-            case 13:
-                ret = new SetScript(json);
-                break;
-            case 15:
-                ret = new Anchor(json);
-                break;
-            case 16:
-                ret = new Association(json);
-                break;
-            case 17:
-                ret = new RevokeAssociation(json);
-                break;
-            case 18:
-                ret = new Sponsor(json);
-                break;
-            case 19:
-                ret = new CancelSponsor(json);
-                break;
-            default:
-                throw new InvalidArgumentException("Unknown transaction type");
+    private HttpResponse<String> get(String endpoint, URI uri) {
+        return get(endpoint, uri, true);
+    }
+
+    // concurrent GETs for the same uri share one request; each caller parses the body into its own objects.
+    // permit is false if the caller already has a permit of the rate limiters.
+    private HttpResponse<String> get(String endpoint, URI uri, boolean permit) {
+        return inFlight.execute(uri, () -> {
+            if (permit) permit(EndpointClass.READ);
+            return send("GET", endpoint, () -> HttpClientUtil.get(uri));
+        });
+    }
+
+    private void permit(EndpointClass endpointClass) {
+        RateLimiter nodeLimiter = this.rateLimiter;
+        RateLimiter endpointLimiter = endpointRateLimiters.get(endpointClass);
+
+        if (nodeLimiter != null) nodeLimiter.permit();
+        if (endpointLimiter == null) return;
+
+        try {
+            endpointLimiter.permit();
+        } catch (RuntimeException e) {
+            // the request isn't sent, so it shouldn't use up a permit of the node
+            if (nodeLimiter != null) nodeLimiter.refund();
+            throw e;
         }
+    }
+
+    // waits for the rate limiters without blocking the caller; in REJECT mode the future fails right away
+    private CompletableFuture<Void> permitAsync(EndpointClass endpointClass) {
+        RateLimiter nodeLimiter = this.rateLimiter;
+        RateLimiter endpointLimiter = endpointRateLimiters.get(endpointClass);
 
+        CompletableFuture<Void> future = nodeLimiter != null ? nodeLimiter.permitAsync() : CompletableFuture.completedFuture(null);
+        if (endpointLimiter == null) return future;
+
+        return future.thenCompose(v -> endpointLimiter.permitAsync().whenComplete((r, e) -> {
+            if (e != null && nodeLimiter != null) nodeLimiter.refund();
+        }));
+    }
+
+    // the request is sent on the async executor once there's a permit
+    private <T> CompletableFuture<T> async(EndpointClass endpointClass, Supplier<T> request) {
+        return permitAsync(endpointClass).thenApplyAsync(v -> request.get(), asyncExecutor);
+    }
+
+    // endpoint is the path without ids, used to label metrics
+    private HttpResponse<String> send(String method, String endpoint, Supplier<HttpResponse<String>> request) {
+        CircuitBreaker breaker = this.circuitBreaker;
+        ConcurrencyLimiter limiter = this.concurrencyLimiter;
+
+        if (breaker != null) breaker.acquire();
+        int inFlightAtStart;
+        try {
+            inFlightAtStart = limiter != null ? limiter.acquire() : 0;
+        } catch (RejectedRequestException e) {
+            // the request was never sent, so it tells nothing about the node
+            if (breaker != null) breaker.release();
+            throw e;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        int statusCode = 0;
+        try {
+            HttpResponse<String> resp = request.get();
+            success = true;
+            statusCode = resp.statusCode();
+            return resp;
+        } catch (HttpResponseException e) {
+            statusCode = e.getStatusCode();
+            success = !e.isRetryable();
+            throw e;
+        } catch (HttpRequestException e) {
+            // client errors, like a 404, are not a sign of an unhealthy node
+            success = !e.isRetryable();
+            throw e;
+        } finally {
+            long latency = System.nanoTime() - start;
+            if (limiter != null) limiter.release(inFlightAtStart, latency, success);
+            if (breaker != null) breaker.record(success);
+            if (MetricsRegistry.isEnabled()) MetricsRegistry.get().recordRequest(method, endpoint, statusCode, latency);
+        }
+    }
+
+    private Transaction getTransactionObject(String body, String endpoint) {
+        return getTransactionObject(new JsonObject(body), body.length(), endpoint);
+    }
+
+    // size of the json is 0 if unknown
+    private Transaction getTransactionObject(JsonObject json, int size, String endpoint) {
+        ParseTransactionEvent event = new ParseTransactionEvent();
+        event.begin();
+
+        Transaction ret = Transaction.fromJson(json);
+        int type = (int) json.get("type");
+
+        event.complete((byte) type, size, endpoint);
         return ret;
     }
+
+    // generic get, post and delete requests count as reads
+    public enum EndpointClass {
+        READ,
+        BROADCAST,
+        COMPILE
+    }
 }
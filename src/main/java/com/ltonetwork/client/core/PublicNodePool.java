@@ -0,0 +1,192 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.CompiledScript;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+import com.ltonetwork.client.types.JsonObject;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Routes requests over a set of nodes. Calls go to the healthy node with the lowest rolling latency, among the
+// nodes that are within `maxHeightLag` blocks of the highest known height. A node that fails with a retryable
+// error is skipped until it answers a height check again, and the call is retried on the next node.
+public class PublicNodePool implements AutoCloseable {
+    // weight of the newest sample in the exponentially weighted moving average of the latency
+    private static final double LATENCY_ALPHA = 0.2;
+
+    private final List<NodeState> nodes;
+    private final int maxHeightLag;
+    private ScheduledExecutorService scheduler;
+
+    public PublicNodePool(List<PublicNode> nodes, int maxHeightLag) {
+        if (nodes.isEmpty()) throw new InvalidArgumentException("Node pool should have at least one node");
+
+        this.nodes = new ArrayList<>();
+        for (PublicNode node : nodes) this.nodes.add(new NodeState(node));
+        this.maxHeightLag = maxHeightLag;
+    }
+
+    public PublicNodePool(List<PublicNode> nodes) {
+        this(nodes, 1);
+    }
+
+    public synchronized void startRefreshing(Duration interval) {
+        if (scheduler != null) throw new IllegalStateException("Node pool is already refreshing");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lto-node-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // fetches the height of every node; a node that answers is healthy again
+    public void refresh() {
+        for (NodeState state : nodes) {
+            long start = System.nanoTime();
+            try {
+                JsonObject json = state.node.get("/blocks/height");
+                state.height = Long.parseLong(json.get("height").toString());
+                state.recordSuccess(System.nanoTime() - start);
+            } catch (RejectedRequestException e) {
+                // a local limit or an open breaker; the node wasn't asked
+            } catch (HttpRequestException e) {
+                if (e.isRetryable()) state.recordFailure();
+            } catch (RuntimeException e) {
+                // an answer the client can't handle says nothing about the health of the node
+            }
+        }
+    }
+
+    public Transaction getTransaction(String id) {
+        return execute(node -> node.getTransaction(id));
+    }
+
+    public List<Transaction> getUnconfirmed() {
+        return execute(PublicNode::getUnconfirmed);
+    }
+
+    public CompiledScript compile(String script) {
+        return execute(node -> node.compile(script));
+    }
+
+    // broadcasting the same signed transaction twice is harmless, as the node rejects the duplicate id
+    public Transaction broadcast(Transaction transaction) {
+        return execute(node -> node.broadcast(transaction));
+    }
+
+    public JsonObject get(String endpoint) {
+        return execute(node -> node.get(endpoint));
+    }
+
+    public JsonObject get(String endpoint, Map<String, String> headers) {
+        return execute(node -> node.get(endpoint, headers));
+    }
+
+    public <T> T execute(Function<PublicNode, T> call) {
+        HttpRequestException failure = null;
+
+        // other exceptions come from the client, like a response it can't parse, and are thrown as is
+        for (NodeState state : rankedStates()) {
+            long start = System.nanoTime();
+            try {
+                T result = call.apply(state.node);
+                state.recordSuccess(System.nanoTime() - start);
+                return result;
+            } catch (RejectedRequestException e) {
+                // the request wasn't sent because of a local limit of this node, which says nothing about its
+                // health; the next node has its own limits
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            } catch (HttpRequestException e) {
+                // the node is fine, the request isn't; another node would give the same answer
+                if (!e.isRetryable()) {
+                    state.recordSuccess(System.nanoTime() - start);
+                    throw e;
+                }
+                state.recordFailure();
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+
+        throw failure;
+    }
+
+    public List<PublicNode> ranked() {
+        List<PublicNode> ranked = new ArrayList<>();
+        for (NodeState state : rankedStates()) ranked.add(state.node);
+        return ranked;
+    }
+
+    public long getHeight(PublicNode node) {
+        return state(node).height;
+    }
+
+    public Duration getLatency(PublicNode node) {
+        return Duration.ofNanos((long) state(node).latency);
+    }
+
+    public boolean isHealthy(PublicNode node) {
+        return state(node).healthy;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    // preferred nodes first, followed by lagging or unhealthy nodes as a last resort
+    private List<NodeState> rankedStates() {
+        long maxHeight = 0;
+        for (NodeState state : nodes) maxHeight = Math.max(maxHeight, state.height);
+        long minHeight = maxHeight - maxHeightLag;
+
+        List<NodeState> ranked = new ArrayList<>(nodes);
+        ranked.sort(Comparator
+                .comparing((NodeState state) -> !state.healthy)
+                .thenComparing(state -> state.height < minHeight)
+                .thenComparingDouble(state -> state.latency));
+
+        return ranked;
+    }
+
+    private NodeState state(PublicNode node) {
+        for (NodeState state : nodes) {
+            if (state.node == node) return state;
+        }
+        throw new InvalidArgumentException("Node is not part of this pool");
+    }
+
+    private static class NodeState {
+        private final PublicNode node;
+        private volatile long height;
+        // nanoseconds; 0 until the first response, so new nodes are tried first
+        private volatile double latency;
+        private volatile boolean healthy = true;
+
+        private NodeState(PublicNode node) {
+            this.node = node;
+        }
+
+        private synchronized void recordSuccess(long nanos) {
+            latency = latency == 0 ? nanos : LATENCY_ALPHA * nanos + (1 - LATENCY_ALPHA) * latency;
+            healthy = true;
+        }
+
+        private void recordFailure() {
+            healthy = false;
+        }
+    }
+}
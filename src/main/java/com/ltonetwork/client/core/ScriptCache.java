@@ -0,0 +1,119 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.CompiledScript;
+import com.ltonetwork.client.types.JsonObject;
+import com.ltonetwork.client.utils.Encoder;
+import com.ltonetwork.seasalt.hash.SHA256;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+// Caches the node's compile results (script, complexity and extra fee) by the SHA-256 of the script source.
+// The same source always compiles to the same result, so entries don't expire. If a directory is given, results are
+// also stored there as <hash>.json, so they survive restarts and can be shared between processes.
+public class ScriptCache {
+    private final Path directory;
+    private final Map<String, CompiledScript> entries = new HashMap<>();
+
+    private long hitCount;
+    private long missCount;
+
+    public ScriptCache(Path directory) {
+        this.directory = directory;
+
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create script cache " + directory, e);
+            }
+        }
+    }
+
+    public ScriptCache() {
+        this(null);
+    }
+
+    public static String key(String script) {
+        return Encoder.hexEncode(SHA256.hash(script.getBytes(StandardCharsets.UTF_8)).getBytes());
+    }
+
+    synchronized CompiledScript get(String script) {
+        String key = key(script);
+        CompiledScript compiled = entries.get(key);
+
+        if (compiled == null && directory != null) {
+            compiled = read(directory.resolve(key + ".json"));
+            if (compiled != null) entries.put(key, compiled);
+        }
+
+        if (compiled == null) missCount++;
+        else hitCount++;
+
+        return compiled;
+    }
+
+    synchronized void put(String script, CompiledScript compiled) {
+        String key = key(script);
+        entries.put(key, compiled);
+
+        if (directory != null) write(directory.resolve(key + ".json"), compiled.toJson());
+    }
+
+    public synchronized boolean contains(String script) {
+        String key = key(script);
+        return entries.containsKey(key) || (directory != null && Files.exists(directory.resolve(key + ".json")));
+    }
+
+    // e.g. after a node upgrade that changes the compiler
+    public synchronized void invalidateAll() {
+        entries.clear();
+        if (directory == null) return;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to clear script cache " + directory, e);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private static CompiledScript read(Path file) {
+        try {
+            if (!Files.exists(file)) return null;
+            return new CompiledScript(new JsonObject(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)));
+        } catch (IOException | RuntimeException e) {
+            // the node is asked again
+            return null;
+        }
+    }
+
+    // written to a temporary file and moved, so other processes never read a partial file
+    private static void write(Path file, String json) {
+        try {
+            Path temp = Files.createTempFile(file.getParent(), "script", ".tmp");
+            Files.write(temp, json.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write script cache " + file, e);
+        }
+    }
+}
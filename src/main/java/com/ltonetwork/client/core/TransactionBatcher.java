@@ -0,0 +1,189 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.core.transaction.Data;
+import com.ltonetwork.client.core.transaction.DataEntry;
+import com.ltonetwork.client.core.transaction.MassTransfer;
+import com.ltonetwork.client.core.transaction.Register;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.TransferShort;
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.types.PublicKey;
+import com.ltonetwork.client.utils.Encoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Coalesces single items into transactions that carry many of them. A batch is flushed when it has `maxItems` items or
+// `maxBytes` bytes, or when its first item has waited `maxDelay`. Flushed transactions are signed and broadcast on the batcher's threads, and the
+// future of every item in the batch completes with the broadcast transaction.
+public class TransactionBatcher<T> implements AutoCloseable {
+    private final Function<List<T>, Transaction> builder;
+    private final Function<Transaction, Transaction> sender;
+    private final int maxItems;
+    private final ToIntFunction<T> sizer;
+    private final int maxBytes;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService executor;
+
+    private List<T> items = new ArrayList<>();
+    private List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+    private int bytes;
+    // counts the flushed batches, so a deadline that fires after its batch was flushed is ignored
+    private long generation;
+    private ScheduledFuture<?> deadline;
+    private boolean closed;
+
+    public TransactionBatcher(Function<List<T>, Transaction> builder, PublicNode node, Account account, int maxItems,
+                              ToIntFunction<T> sizer, int maxBytes, Duration maxDelay, int concurrency) {
+        this(builder, tx -> {
+            tx.signWith(account);
+            return node.broadcast(tx);
+        }, maxItems, sizer, maxBytes, maxDelay, concurrency);
+    }
+
+    public TransactionBatcher(Function<List<T>, Transaction> builder, PublicNode node, Account account, int maxItems,
+                              Duration maxDelay, int concurrency) {
+        this(builder, node, account, maxItems, item -> 0, Integer.MAX_VALUE, maxDelay, concurrency);
+    }
+
+    // sender signs and broadcasts a transaction; used for testing
+    TransactionBatcher(Function<List<T>, Transaction> builder, Function<Transaction, Transaction> sender, int maxItems,
+                       ToIntFunction<T> sizer, int maxBytes, Duration maxDelay, int concurrency) {
+        if (maxItems < 1) throw new InvalidArgumentException("Max items should be at least 1");
+        if (maxBytes < 1) throw new InvalidArgumentException("Max bytes should be at least 1");
+        if (concurrency < 1) throw new InvalidArgumentException("Concurrency should be at least 1");
+
+        this.builder = builder;
+        this.sender = sender;
+        this.maxItems = maxItems;
+        this.sizer = sizer;
+        this.maxBytes = maxBytes;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.executor = Executors.newScheduledThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "lto-transaction-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    TransactionBatcher(Function<List<T>, Transaction> builder, Function<Transaction, Transaction> sender, int maxItems,
+                       Duration maxDelay, int concurrency) {
+        this(builder, sender, maxItems, item -> 0, Integer.MAX_VALUE, maxDelay, concurrency);
+    }
+
+    public static TransactionBatcher<byte[]> anchors(PublicNode node, Account account, Duration maxDelay) {
+        return new TransactionBatcher<>(hashes -> {
+            Anchor anchor = new Anchor(Encoder.base58Encode(hashes.get(0)), Encoding.BASE58);
+            for (int i = 1; i < hashes.size(); i++) anchor.addHash(Encoder.base58Encode(hashes.get(i)), Encoding.BASE58);
+            return anchor;
+        }, node, account, Anchor.MAX_ANCHORS, maxDelay, 4);
+    }
+
+    public static TransactionBatcher<TransferShort> transfers(PublicNode node, Account account, Duration maxDelay) {
+        return new TransactionBatcher<>(transfers -> {
+            MassTransfer massTransfer = new MassTransfer();
+            for (TransferShort transfer : transfers) massTransfer.addTransfer(transfer.getRecipient(), transfer.getAmount());
+            return massTransfer;
+        }, node, account, MassTransfer.MAX_TRANSFERS, maxDelay, 4);
+    }
+
+    public static TransactionBatcher<PublicKey> registrations(PublicNode node, Account account, Duration maxDelay) {
+        return new TransactionBatcher<>(keys -> {
+            Register register = new Register();
+            for (PublicKey key : keys) register.addAccount(key);
+            return register;
+        }, node, account, Register.MAX_ACCOUNTS, maxDelay, 4);
+    }
+
+    public static TransactionBatcher<DataEntry<?>> data(PublicNode node, Account account, Duration maxDelay) {
+        return new TransactionBatcher<>(
+                entries -> new Data(entries.toArray(new DataEntry<?>[0])),
+                node, account, Data.MAX_ENTRIES, DataEntry::binarySize, Data.MAX_ENTRIES_BYTES, maxDelay, 4
+        );
+    }
+
+    // completes with the transaction that contains the item, once it's broadcast
+    public CompletableFuture<Transaction> submit(T item) {
+        int size = sizer.applyAsInt(item);
+        if (size > maxBytes) {
+            throw new InvalidArgumentException(String.format("Item of %d bytes doesn't fit in a batch of %d bytes", size, maxBytes));
+        }
+
+        CompletableFuture<Transaction> future = new CompletableFuture<>();
+
+        synchronized (this) {
+            if (closed) throw new BadMethodCallException("Transaction batcher is closed");
+
+            if (bytes + size > maxBytes) flush();
+
+            items.add(item);
+            futures.add(future);
+            bytes += size;
+
+            if (items.size() >= maxItems || bytes >= maxBytes) {
+                flush();
+            } else if (deadline == null) {
+                long batch = generation;
+                deadline = executor.schedule(() -> flush(batch), maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        return future;
+    }
+
+    public synchronized int pending() {
+        return items.size();
+    }
+
+    // sends the current batch without waiting for it to fill up
+    public synchronized void flush() {
+        if (deadline != null) deadline.cancel(false);
+        deadline = null;
+        if (items.isEmpty()) return;
+
+        List<T> batch = items;
+        List<CompletableFuture<Transaction>> batchFutures = futures;
+        items = new ArrayList<>();
+        futures = new ArrayList<>();
+        bytes = 0;
+        generation++;
+
+        executor.execute(() -> send(batch, batchFutures));
+    }
+
+    // a deadline that already fired may wait here while its batch is flushed, so it only flushes its own batch
+    private synchronized void flush(long batch) {
+        if (batch == generation) flush();
+    }
+
+    // flushes the pending items; their futures still complete after close
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            flush();
+        }
+
+        executor.shutdown();
+    }
+
+    private void send(List<T> batch, List<CompletableFuture<Transaction>> batchFutures) {
+        try {
+            Transaction transaction = sender.apply(builder.apply(batch));
+            for (CompletableFuture<Transaction> future : batchFutures) future.complete(transaction);
+        } catch (RuntimeException e) {
+            for (CompletableFuture<Transaction> future : batchFutures) future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ltonetwork.client.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Caches the node's JSON for confirmed transactions. The JSON is stored rather than the parsed transaction, because
+// transactions are mutable; each hit is parsed into a new object. An entry's weight is the length of its JSON.
+public class TransactionCache {
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final LinkedHashMap<String, String> entries;
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public TransactionCache(int maximumSize, long maximumWeight, Eviction eviction) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("Maximum size should be greater than 0");
+        if (maximumWeight <= 0) throw new IllegalArgumentException("Maximum weight should be greater than 0");
+
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.entries = new LinkedHashMap<>(16, 0.75f, eviction == Eviction.LRU);
+    }
+
+    public TransactionCache(int maximumSize, long maximumWeight) {
+        this(maximumSize, maximumWeight, Eviction.LRU);
+    }
+
+    public TransactionCache(int maximumSize) {
+        this(maximumSize, Long.MAX_VALUE, Eviction.LRU);
+    }
+
+    synchronized String get(String id) {
+        String json = entries.get(id);
+
+        if (json == null) missCount++;
+        else hitCount++;
+
+        return json;
+    }
+
+    synchronized void put(String id, String json) {
+        if (json.length() > maximumWeight) return;
+
+        String previous = entries.put(id, json);
+        if (previous != null) weight -= previous.length();
+        weight += json.length();
+
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maximumSize || weight > maximumWeight) {
+            weight -= eldest.next().getValue().length();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    public synchronized void invalidate(String id) {
+        String previous = entries.remove(id);
+        if (previous != null) weight -= previous.length();
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public enum Eviction {
+        // least recently used
+        LRU,
+        // first in, first out
+        FIFO
+    }
+}
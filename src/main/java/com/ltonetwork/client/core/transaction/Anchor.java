@@ -13,13 +13,13 @@ import java.util.Arrays;
 import java.util.List;
 
 public class Anchor extends Transaction {
-    private final static long MINIMUM_FEE = 35_000_000;
+    public final static int MAX_ANCHORS = 100;
     private final static byte TYPE = 15;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 1, (byte) 3);
     private final ArrayList<String> anchors;
 
     public Anchor(String hash, Encoding encoding, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
 
@@ -45,7 +45,7 @@ public class Anchor extends Transaction {
         this.anchors = anchors;
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
@@ -60,6 +60,11 @@ public class Anchor extends Transaction {
 
     public void addHash(String hash, Encoding encoding) {
         anchors.add(Encoder.base58Encode(Encoder.decode(hash, encoding)));
+        updateFee();
+    }
+
+    protected int countItems() {
+        return anchors.size();
     }
 
     public String getHash(Encoding encoding) {
@@ -14,7 +14,6 @@ import java.util.Arrays;
 import java.util.List;
 
 public class Association extends Transaction {
-    private final static long MINIMUM_FEE = 100_000_000;
     private final static byte TYPE = 16;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 1, (byte) 3);
     private final Address party;
@@ -23,7 +22,7 @@ public class Association extends Transaction {
     private String hash;
 
     public Association(Address party, int type, String hash, Encoding encoding, long expires, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
         if (version == (byte) 1 && expires != 0)
@@ -48,7 +47,7 @@ public class Association extends Transaction {
     }
 
     public Association(Address party, int type, long expires, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
         if (version == (byte) 1 && expires != 0)
@@ -87,7 +86,7 @@ public class Association extends Transaction {
         if (json.has("hash")) this.hash = json.get("hash").toString();
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
@@ -9,13 +9,12 @@ import java.util.Arrays;
 import java.util.List;
 
 public class CancelLease extends Transaction {
-    private final static long MINIMUM_FEE = 100_000_000;
     private final static byte TYPE = 9;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 2, (byte) 3);
     private final String leaseId;
 
     public CancelLease(String leaseId, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
 
@@ -34,7 +33,7 @@ public class CancelLease extends Transaction {
         this.leaseId = json.get("leaseId").toString();
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
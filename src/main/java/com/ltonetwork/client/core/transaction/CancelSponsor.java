@@ -10,13 +10,12 @@ import java.util.Arrays;
 import java.util.List;
 
 public class CancelSponsor extends Transaction {
-    private final static long MINIMUM_FEE = 500_000_000;
     private final static byte TYPE = 19;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 1, (byte) 3);
     private final Address recipient;
 
     public CancelSponsor(Address recipient, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
 
@@ -35,7 +34,7 @@ public class CancelSponsor extends Transaction {
         this.recipient = new Address(json.get("recipient").toString());
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
@@ -0,0 +1,46 @@
+package com.ltonetwork.client.core.transaction;
+
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.JsonObject;
+
+// Result of compiling a script on a node (/utils/script/compile)
+public class CompiledScript {
+    private final String script;
+    private final int complexity;
+    private final long extraFee;
+
+    public CompiledScript(String script, int complexity, long extraFee) {
+        this.script = script.replaceAll("^(base64:)?", "base64:");
+        this.complexity = complexity;
+        this.extraFee = extraFee;
+    }
+
+    public CompiledScript(JsonObject json) {
+        this(
+                field(json, "script"),
+                Integer.parseInt(field(json, "complexity")),
+                Long.parseLong(field(json, "extraFee"))
+        );
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    public int getComplexity() {
+        return complexity;
+    }
+
+    public long getExtraFee() {
+        return extraFee;
+    }
+
+    public String toJson() {
+        return String.format("{\"script\": \"%s\", \"complexity\": %d, \"extraFee\": %d}", script, complexity, extraFee);
+    }
+
+    private static String field(JsonObject json, String key) {
+        if (!json.has(key)) throw new InvalidArgumentException("Compile result is missing '" + key + "'");
+        return json.get(key).toString();
+    }
+}
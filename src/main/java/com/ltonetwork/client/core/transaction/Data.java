@@ -10,19 +10,20 @@ import java.util.Arrays;
 import java.util.List;
 
 public class Data extends Transaction {
-    private final static long BASE_FEE = 100_000_000;
-    private final static long DATA_FEE = 10_000_000;
+    public final static int MAX_ENTRIES = 100;
+    // the node accepts data transactions up to 150 KB; the rest is left for the header and the proofs
+    public final static int MAX_ENTRIES_BYTES = 150 * 1024 - 1024;
     private final static byte TYPE = 12;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 3);
     private final DataEntry<?>[] data;
 
     public Data(DataEntry<?>[] data) {
-        super(TYPE, (byte) 3, BASE_FEE);
+        super(TYPE, (byte) 3);
 
         checkVersion(SUPPORTED_VERSIONS);
 
         this.data = data;
-        updateFeeBasedOnEntries(data);
+        updateFee();
     }
 
     public Data(JsonObject json) {
@@ -55,11 +56,9 @@ public class Data extends Transaction {
 
         this.data = new DataEntry[dataFromJson.size()];
         for (int i = 0; i < data.length; i++) this.data[i] = dataFromJson.get(i);
-
-        updateFeeBasedOnEntries(data);
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
@@ -89,10 +88,14 @@ public class Data extends Transaction {
         return ret;
     }
 
-    private void updateFeeBasedOnEntries(DataEntry<?>[] data) {
-        byte[] dataBytes = new byte[0];
-        for (DataEntry<?> entry : data) dataBytes = Bytes.concat(dataBytes, entry.toBinary());
-        if (dataBytes.length > 0) this.fee += (dataBytes.length / (1024 * 256) + 1) * DATA_FEE;
+    protected int countItems() {
+        return data.length;
+    }
+
+    protected int dataSize() {
+        int size = 0;
+        for (DataEntry<?> entry : data) size += entry.binarySize();
+        return size;
     }
 
     private byte[] parseBytes(String bytesString) {
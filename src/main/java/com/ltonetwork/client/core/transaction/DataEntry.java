@@ -68,6 +68,23 @@ public class DataEntry<T> {
         }
     }
 
+    // length of toBinary, without serializing
+    public int binarySize() {
+        int size = 2 + key.getBytes(StandardCharsets.UTF_8).length + 1;
+        switch (type) {
+            case INTEGER:
+                return size + 8;
+            case BOOLEAN:
+                return size + 1;
+            case BINARY:
+                return size + 2 + ((byte[]) value).length;
+            case STRING:
+                return size + 2 + value.toString().getBytes().length;
+            default:
+                throw new IllegalArgumentException("Unknown DataEntry type");
+        }
+    }
+
     public enum DataEntryType {
         // N.B.: Integer meant as number, not as integer type, actual type is Long
         INTEGER,
@@ -0,0 +1,98 @@
+package com.ltonetwork.client.core.transaction;
+
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Computes transaction fees from the type, the number of items (transfers, accounts, anchors) and the size of the
+// data, without serializing the transaction. The fee table can be changed to follow the network; new transactions
+// take their fee from the default calculator.
+//
+// fee = base fee + items * item fee + (data size / data chunk size + 1) * data fee, the last term only with data
+public class FeeCalculator {
+    private static volatile FeeCalculator defaultCalculator = new FeeCalculator();
+
+    private final Map<Byte, Long> baseFees = new ConcurrentHashMap<>();
+    private final Map<Byte, Long> itemFees = new ConcurrentHashMap<>();
+    private volatile long dataFee = 10_000_000;
+    private volatile int dataChunkSize = 256 * 1024;
+
+    public FeeCalculator() {
+        baseFees.put((byte) 4, 100_000_000L);   // transfer
+        baseFees.put((byte) 8, 100_000_000L);   // lease
+        baseFees.put((byte) 9, 100_000_000L);   // cancel lease
+        baseFees.put((byte) 11, 100_000_000L);  // mass transfer
+        baseFees.put((byte) 12, 100_000_000L);  // data
+        baseFees.put((byte) 13, 500_000_000L);  // set script
+        baseFees.put((byte) 15, 35_000_000L);   // anchor
+        baseFees.put((byte) 16, 100_000_000L);  // association
+        baseFees.put((byte) 17, 100_000_000L);  // revoke association
+        baseFees.put((byte) 18, 500_000_000L);  // sponsor
+        baseFees.put((byte) 19, 500_000_000L);  // cancel sponsor
+        baseFees.put((byte) 20, 100_000_000L);  // register
+
+        itemFees.put((byte) 11, 10_000_000L);
+        itemFees.put((byte) 20, 10_000_000L);
+    }
+
+    public static FeeCalculator getDefault() {
+        return defaultCalculator;
+    }
+
+    public static void setDefault(FeeCalculator calculator) {
+        defaultCalculator = calculator == null ? new FeeCalculator() : calculator;
+    }
+
+    public long getBaseFee(byte type) {
+        Long fee = baseFees.get(type);
+        if (fee == null) throw new InvalidArgumentException("No fee known for transaction type " + type);
+        return fee;
+    }
+
+    public void setBaseFee(byte type, long fee) {
+        baseFees.put(type, fee);
+    }
+
+    public long getItemFee(byte type) {
+        return itemFees.getOrDefault(type, 0L);
+    }
+
+    public void setItemFee(byte type, long fee) {
+        itemFees.put(type, fee);
+    }
+
+    public long getDataFee() {
+        return dataFee;
+    }
+
+    public int getDataChunkSize() {
+        return dataChunkSize;
+    }
+
+    public void setDataFee(long fee, int chunkSize) {
+        if (chunkSize < 1) throw new InvalidArgumentException("Data chunk size should be at least 1");
+
+        this.dataFee = fee;
+        this.dataChunkSize = chunkSize;
+    }
+
+    public long calculate(byte type, int items, int dataSize) {
+        long fee = getBaseFee(type) + items * getItemFee(type);
+        if (dataSize > 0) fee += (dataSize / dataChunkSize + 1) * dataFee;
+        return fee;
+    }
+
+    public long calculate(Transaction transaction) {
+        return calculate(transaction.type, transaction.countItems(), transaction.dataSize());
+    }
+
+    // the number of items a transaction of the type can carry within the budget; the protocol maximum still applies
+    public int maxItems(byte type, long budget) {
+        long available = budget - getBaseFee(type);
+        if (available < 0) return 0;
+
+        long itemFee = getItemFee(type);
+        return itemFee == 0 ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, available / itemFee);
+    }
+}
@@ -11,14 +11,13 @@ import java.util.Arrays;
 import java.util.List;
 
 public class Lease extends Transaction {
-    private final static long MINIMUM_FEE = 100_000_000;
     private final static byte TYPE = 8;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 2, (byte) 3);
     private final long amount;
     private final Address recipient;
 
     public Lease(long amount, Address recipient, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
         if (amount <= 0) throw new InvalidArgumentException("Invalid amount; should be greater than 0");
@@ -40,7 +39,7 @@ public class Lease extends Transaction {
         this.recipient = new Address(json.get("recipient").toString());
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
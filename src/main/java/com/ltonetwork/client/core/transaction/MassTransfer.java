@@ -14,15 +14,14 @@ import java.util.Arrays;
 import java.util.List;
 
 public class MassTransfer extends Transaction {
-    private final static long BASE_FEE = 100_000_000;
-    private final static long ITEM_FEE = 10_000_000;
+    public final static int MAX_TRANSFERS = 100;
     private final static byte TYPE = 11;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 1, (byte) 3);
     private final ArrayList<TransferShort> transfers;
     private String attachment;
 
     public MassTransfer(byte version) {
-        super(TYPE, version, BASE_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
 
@@ -56,6 +55,7 @@ public class MassTransfer extends Transaction {
 
     public void setAttachment(String message, Encoding encoding) {
         this.attachment = Encoder.base58Encode(Encoder.decode(message, encoding));
+        invalidateBinary();
     }
 
     public void setAttachment(String message) {
@@ -63,16 +63,23 @@ public class MassTransfer extends Transaction {
     }
 
     public void addTransfer(Address recipient, int amount) {
+        addTransfer(recipient, (long) amount);
+    }
 
+    public void addTransfer(Address recipient, long amount) {
         if (amount <= 0) {
             throw new InvalidArgumentException("Invalid amount; should be greater than 0");
         }
 
         transfers.add(new TransferShort(recipient, amount));
-        this.fee += ITEM_FEE;
+        updateFee();
+    }
+
+    protected int countItems() {
+        return transfers.size();
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
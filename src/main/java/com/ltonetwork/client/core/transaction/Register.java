@@ -14,14 +14,13 @@ import java.util.List;
 import java.util.Locale;
 
 public class Register extends Transaction {
-    private final static long BASE_FEE = 100_000_000;
-    private final static long VAR_FEE = 10_000_000;
+    public final static int MAX_ACCOUNTS = 100;
     private final static byte TYPE = 20;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 3);
     private final ArrayList<PublicKey> accounts;
 
     public Register(byte version) {
-        super(TYPE, version, BASE_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
 
@@ -45,16 +44,19 @@ public class Register extends Transaction {
             Key.KeyType keyType = Key.KeyType.valueOf(curr.get("keyType").toString().toUpperCase(Locale.ROOT));
             String key = curr.get("publicKey").toString();
             accounts.add(new PublicKey(key, Encoding.BASE58, keyType));
-            this.fee += VAR_FEE;
         }
     }
 
     public void addAccount(PublicKey account) {
         accounts.add(account);
-        this.fee += VAR_FEE;
+        updateFee();
     }
 
-    public byte[] toBinary() {
+    protected int countItems() {
+        return accounts.size();
+    }
+
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
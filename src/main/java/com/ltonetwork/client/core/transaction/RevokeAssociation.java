@@ -14,7 +14,6 @@ import java.util.Arrays;
 import java.util.List;
 
 public class RevokeAssociation extends Transaction {
-    private final static long MINIMUM_FEE = 100_000_000;
     private final static byte TYPE = 17;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 1, (byte) 3);
     private final Address party;
@@ -22,7 +21,7 @@ public class RevokeAssociation extends Transaction {
     private String hash;
 
     public RevokeAssociation(Address party, int type, String hash, Encoding encoding, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         if (!SUPPORTED_VERSIONS.contains(version))
             throw new IllegalArgumentException("Unknown version, supported versions are: " + SUPPORTED_VERSIONS);
@@ -37,7 +36,7 @@ public class RevokeAssociation extends Transaction {
     }
 
     public RevokeAssociation(Address party, int type, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         if (!SUPPORTED_VERSIONS.contains(version))
             throw new IllegalArgumentException("Unknown version, supported versions are: " + SUPPORTED_VERSIONS);
@@ -63,7 +62,7 @@ public class RevokeAssociation extends Transaction {
         if (json.has("hash")) this.hash = json.get("hash").toString();
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         if (this.senderPublicKey == null) throw new BadMethodCallException("Sender public key not set");
         if (this.timestamp == 0) throw new BadMethodCallException("Timestamp not set");
 
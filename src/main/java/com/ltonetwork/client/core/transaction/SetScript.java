@@ -11,7 +11,6 @@ import java.util.Arrays;
 import java.util.List;
 
 public class SetScript extends Transaction {
-    private final static long MINIMUM_FEE = 500_000_000;
     private final static byte TYPE = 13;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 1, (byte) 3);
     private final String script;
@@ -19,7 +18,7 @@ public class SetScript extends Transaction {
     private long extraFee;
 
     public SetScript(String script, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
 
@@ -30,6 +29,18 @@ public class SetScript extends Transaction {
         this(script, (byte) 3);
     }
 
+    // a script compiled by the node, with its complexity and extra fee
+    public SetScript(CompiledScript compiled, byte version) {
+        this(compiled.getScript(), version);
+
+        this.complexity = compiled.getComplexity();
+        this.extraFee = compiled.getExtraFee();
+    }
+
+    public SetScript(CompiledScript compiled) {
+        this(compiled, (byte) 3);
+    }
+
     public SetScript(JsonObject json) {
         super(json);
 
@@ -45,7 +56,7 @@ public class SetScript extends Transaction {
 
     public long getEstimatedFee() {
         if (extraFee == 0) throw new BadMethodCallException("Can't estimate fee; the script hasn't been compiled");
-        return MINIMUM_FEE + extraFee;
+        return FeeCalculator.getDefault().getBaseFee(TYPE) + extraFee;
     }
 
     public int getComplexity() {
@@ -54,7 +65,7 @@ public class SetScript extends Transaction {
         return complexity;
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
@@ -0,0 +1,86 @@
+package com.ltonetwork.client.core.transaction;
+
+import com.ltonetwork.client.types.Address;
+import com.ltonetwork.client.types.PublicKey;
+import com.ltonetwork.client.utils.CryptoUtil;
+import com.ltonetwork.seasalt.sign.Signature;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// Immutable snapshot of a signed transaction. The binary is shared with the transaction it was created from,
+// which only ever replaces its cached binary, so the view is safe to pass between threads without copying.
+public final class SignedTransaction {
+    private final byte type;
+    private final byte version;
+    private final long fee;
+    private final long timestamp;
+    private final TransactionId id;
+    private final Address sender;
+    private final PublicKey senderPublicKey;
+    private final List<Signature> proofs;
+    private final byte[] binary;
+
+    SignedTransaction(Transaction transaction, byte[] binary, TransactionId id) {
+        this.type = transaction.type;
+        this.version = transaction.version;
+        this.fee = transaction.fee;
+        this.timestamp = transaction.timestamp;
+        this.id = id;
+        this.sender = transaction.sender;
+        this.senderPublicKey = transaction.senderPublicKey;
+        this.proofs = List.copyOf(transaction.proofs);
+        this.binary = binary;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    public long getFee() {
+        return fee;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public TransactionId getId() {
+        return id;
+    }
+
+    public Address getSender() {
+        return sender;
+    }
+
+    public PublicKey getSenderPublicKey() {
+        return senderPublicKey;
+    }
+
+    public List<Signature> getProofs() {
+        return proofs;
+    }
+
+    public ByteBuffer getBinary() {
+        return ByteBuffer.wrap(binary).asReadOnlyBuffer();
+    }
+
+    public byte[] toBinary() {
+        return binary.clone();
+    }
+
+    public boolean verify(PublicKey publicKey) {
+        for (Signature proof : proofs) {
+            if (CryptoUtil.verify(proof, binary, publicKey)) return true;
+        }
+        return false;
+    }
+
+    public boolean verify() {
+        return verify(senderPublicKey);
+    }
+}
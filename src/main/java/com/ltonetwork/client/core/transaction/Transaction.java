@@ -1,13 +1,18 @@
 package com.ltonetwork.client.core.transaction;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ltonetwork.client.core.Account;
 import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.metrics.MetricsRegistry;
+import com.ltonetwork.client.metrics.TransactionTimeline;
+import com.ltonetwork.client.metrics.events.ToBinaryEvent;
 import com.ltonetwork.client.types.Address;
 import com.ltonetwork.client.types.Encoding;
 import com.ltonetwork.client.types.JsonObject;
 import com.ltonetwork.client.types.PublicKey;
-import com.ltonetwork.client.utils.CryptoUtil;
 import com.ltonetwork.seasalt.Binary;
+import com.ltonetwork.seasalt.hash.Blake2b256;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -24,12 +29,22 @@ public abstract class Transaction {
     protected PublicKey senderPublicKey;
     protected ArrayList<com.ltonetwork.seasalt.sign.Signature> proofs;
     protected Account sponsor;
+    // serialized body, shared with SignedTransaction views; replaced (never modified) when the body changes
+    private byte[] binary;
+    // only for transactions that are built or signed here, not for those decoded from the node
+    private TransactionTimeline timeline;
 
     public Transaction(byte type, byte version, long fee) {
         this.type = type;
         this.version = version;
         this.fee = fee;
         this.proofs = new ArrayList<>();
+        this.timeline = new TransactionTimeline();
+    }
+
+    // the fee is the base fee of the type; subclasses with items call updateFee when they change
+    public Transaction(byte type, byte version) {
+        this(type, version, FeeCalculator.getDefault().calculate(type, 0, 0));
     }
 
     public Transaction(JsonObject json) {
@@ -41,20 +56,61 @@ public abstract class Transaction {
         if (json.has("id")) this.id = new TransactionId(json.get("id").toString());
         this.sender = new Address(json.get("sender").toString());
         this.senderPublicKey = new PublicKey(json.get("senderPublicKey").toString(), Encoding.BASE58);
-        if (json.has("proofs")) this.proofs = fetchProofs(new JsonObject(json.get("proofs").toString(), true));
+        this.proofs = json.has("proofs")
+                ? fetchProofs(new JsonObject(json.get("proofs").toString(), true))
+                : new ArrayList<>();
+    }
+
+    public static Transaction fromJson(JsonObject json) {
+        int type = (int) json.get("type");
+
+        switch (type) {
+            case 4:
+                return new Transfer(json);
+            case 8:
+                return new Lease(json);
+            case 9:
+                return new CancelLease(json);
+            case 11:
+                return new MassTransfer(json);
+            case 12:
+                return new Data(json);
+            case 13:
+                return new SetScript(json);
+            case 15:
+                return new Anchor(json);
+            case 16:
+                return new Association(json);
+            case 17:
+                return new RevokeAssociation(json);
+            case 18:
+                return new Sponsor(json);
+            case 19:
+                return new CancelSponsor(json);
+            case 20:
+                return new Register(json);
+            default:
+                throw new InvalidArgumentException("Unknown transaction type");
+        }
     }
 
     public void signWith(Account account) {
         if (this.sender == null) {
             this.sender = account.getAddressStruct();
             this.senderPublicKey = account.getPublicSignKey();
+            invalidateBinary();
         }
 
         if (this.timestamp == 0) {
             this.timestamp = Instant.now().toEpochMilli() * 1000;
+            invalidateBinary();
         }
 
-        this.proofs.add(CryptoUtil.signDetached(this.toBinary(), account.getSign().getPrivateKey()));
+        byte[] binary = this.binary();
+        this.proofs.add(account.sign(binary));
+        this.id = calculateId(binary);
+        if (timeline == null) timeline = new TransactionTimeline(false);
+        timeline.record(TransactionTimeline.Stage.SIGN);
     }
 
     public void sponsorWith(Account account) {
@@ -65,7 +121,30 @@ public abstract class Transaction {
         this.sponsor = account;
     }
 
-    abstract public byte[] toBinary();
+    public byte[] toBinary() {
+        return this.binary().clone();
+    }
+
+    public SignedTransaction toSigned() {
+        if (proofs.isEmpty()) throw new BadMethodCallException("Transaction is not signed");
+
+        byte[] binary = this.binary();
+        return new SignedTransaction(this, binary, id != null ? id : calculateId(binary));
+    }
+
+    public TransactionId getId() {
+        return this.id;
+    }
+
+    // null if the transaction was decoded and isn't signed here
+    @JsonIgnore
+    public TransactionTimeline getTimeline() {
+        return this.timeline;
+    }
+
+    public TransactionId calculateId() {
+        return calculateId(this.binary());
+    }
 
     public boolean isSigned() {
         return !(sender == null);
@@ -75,6 +154,33 @@ public abstract class Transaction {
         return this.sender.getChainId();
     }
 
+    // height of the block that contains the transaction, 0 if unknown or unconfirmed
+    @JsonIgnore
+    public int getHeight() {
+        return this.height;
+    }
+
+    @JsonIgnore
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    // signWith keeps a timestamp that is set, so a rebuilt transaction gets the same id
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+        invalidateBinary();
+    }
+
+    @JsonIgnore
+    public long getFee() {
+        return this.fee;
+    }
+
+    @JsonIgnore
+    public Address getSender() {
+        return this.sender;
+    }
+
     public Account getSponsor() {
         return this.sponsor;
     }
@@ -83,6 +189,29 @@ public abstract class Transaction {
         return this.proofs;
     }
 
+    abstract protected byte[] serialize();
+
+    // number of transfers, accounts or anchors, for the fee
+    protected int countItems() {
+        return 0;
+    }
+
+    // size of the data in bytes, for the fee
+    protected int dataSize() {
+        return 0;
+    }
+
+    protected void updateFee() {
+        this.fee = FeeCalculator.getDefault().calculate(this);
+        invalidateBinary();
+    }
+
+    // must be called by every method that changes a field included in the binary
+    protected void invalidateBinary() {
+        this.binary = null;
+        this.id = null;
+    }
+
     protected void checkToBinary() {
         if (this.senderPublicKey == null) throw new BadMethodCallException("Sender public key not set");
         if (this.timestamp == 0) throw new BadMethodCallException("Timestamp not set");
@@ -93,6 +222,28 @@ public abstract class Transaction {
             throw new IllegalArgumentException("Unknown version " + version + ", supported versions are: " + supportedVersions);
     }
 
+    private byte[] binary() {
+        if (this.binary == null) {
+            ToBinaryEvent event = new ToBinaryEvent();
+            event.begin();
+            this.binary = MetricsRegistry.isEnabled() ? measuredSerialize() : serialize();
+            event.complete(type, binary.length);
+            if (timeline != null) timeline.record(TransactionTimeline.Stage.TO_BINARY);
+        }
+        return this.binary;
+    }
+
+    private byte[] measuredSerialize() {
+        long start = System.nanoTime();
+        byte[] binary = serialize();
+        MetricsRegistry.get().recordToBinary(type, binary.length, System.nanoTime() - start);
+        return binary;
+    }
+
+    private TransactionId calculateId(byte[] binary) {
+        return new TransactionId(Blake2b256.hash(binary).getBytes());
+    }
+
     private ArrayList<com.ltonetwork.seasalt.sign.Signature> fetchProofs(JsonObject jsonProofs) {
         ArrayList<com.ltonetwork.seasalt.sign.Signature> proofs = new ArrayList<>();
 
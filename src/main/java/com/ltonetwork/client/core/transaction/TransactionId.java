@@ -1,19 +1,46 @@
 package com.ltonetwork.client.core.transaction;
 
+import com.fasterxml.jackson.annotation.JsonValue;
 import com.ltonetwork.client.exceptions.BadMethodCallException;
 import com.ltonetwork.client.utils.Encoder;
 
 public class TransactionId {
+    private static final int LENGTH = 32;
+
     private final String value;
 
     public TransactionId(String value) {
-        if (value.length() != 43) throw new BadMethodCallException("Transaction id should be 43 chars long");
         if (!Encoder.isBase58Encoded(value)) throw new BadMethodCallException("Transaction id is not base58 encoded");
+        if (Encoder.base58Decode(value).length != LENGTH)
+            throw new BadMethodCallException("Transaction id should be " + LENGTH + " bytes long");
 
         this.value = value;
     }
 
+    public TransactionId(byte[] value) {
+        if (value.length != LENGTH) throw new BadMethodCallException("Transaction id should be " + LENGTH + " bytes long");
+
+        this.value = Encoder.base58Encode(value);
+    }
+
+    public byte[] getBytes() {
+        return Encoder.base58Decode(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionId)) return false;
+        return value.equals(((TransactionId) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
     @Override
+    @JsonValue
     public String toString() {
         return value;
     }
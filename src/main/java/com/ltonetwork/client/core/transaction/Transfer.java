@@ -13,7 +13,6 @@ import java.util.Arrays;
 import java.util.List;
 
 public class Transfer extends Transaction {
-    private final static long MINIMUM_FEE = 100_000_000;
     private final static byte TYPE = 4;
     private final static List<Byte> SUPPORTED_VERSIONS = Arrays.asList((byte) 1, (byte) 2, (byte) 3);
     private final long amount;
@@ -21,7 +20,7 @@ public class Transfer extends Transaction {
     private String attachment;
 
     public Transfer(int amount, Address recipient, byte version) {
-        super(TYPE, version, MINIMUM_FEE);
+        super(TYPE, version);
 
         checkVersion(SUPPORTED_VERSIONS);
         if (amount <= 0) throw new InvalidArgumentException("Invalid amount; should be greater than 0");
@@ -49,6 +48,7 @@ public class Transfer extends Transaction {
 
     public void setAttachment(String message, Encoding encoding) {
         this.attachment = Encoder.base58Encode(Encoder.decode(message, encoding));
+        invalidateBinary();
     }
 
     public void setAttachment(String message) {
@@ -56,7 +56,7 @@ public class Transfer extends Transaction {
         setAttachment(message, Encoding.BASE58);
     }
 
-    public byte[] toBinary() {
+    protected byte[] serialize() {
         checkToBinary();
 
         switch (version) {
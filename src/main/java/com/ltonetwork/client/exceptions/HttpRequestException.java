@@ -0,0 +1,23 @@
+package com.ltonetwork.client.exceptions;
+
+@SuppressWarnings("serial")
+public class HttpRequestException extends RuntimeException {
+    private final boolean retryable;
+
+    public HttpRequestException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public HttpRequestException(String message, Throwable cause) {
+        this(message, cause, true);
+    }
+
+    public HttpRequestException(String message, boolean retryable) {
+        this(message, null, retryable);
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ltonetwork.client.exceptions;
+
+@SuppressWarnings("serial")
+public class HttpResponseException extends HttpRequestException {
+    private final int statusCode;
+    private final String body;
+
+    public HttpResponseException(String message, int statusCode, String body) {
+        // too many requests and server errors may succeed on a next attempt
+        super(message, statusCode == 429 || statusCode >= 500);
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ltonetwork.client.exceptions;
+
+// The request was not sent, to protect the node; it may succeed later or on another node.
+@SuppressWarnings("serial")
+public class RejectedRequestException extends HttpRequestException {
+    public RejectedRequestException(String message) {
+        super(message, true);
+    }
+}
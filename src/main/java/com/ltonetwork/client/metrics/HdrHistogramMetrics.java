@@ -0,0 +1,65 @@
+package com.ltonetwork.client.metrics;
+
+import com.ltonetwork.client.types.Key;
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records every measurement in an HdrHistogram. Requires org.hdrhistogram:HdrHistogram on the classpath.
+// Histograms are named after what they measure, eg "http GET /transactions/info 200", "sign ED25519",
+// "toBinary 15" and "toBinary.size 15" (bytes). Durations are in nanoseconds.
+public class HdrHistogramMetrics implements Metrics {
+    private final int significantDigits;
+    private final Map<String, ConcurrentHistogram> histograms = new ConcurrentHashMap<>();
+
+    public HdrHistogramMetrics(int significantDigits) {
+        this.significantDigits = significantDigits;
+    }
+
+    public HdrHistogramMetrics() {
+        this(2);
+    }
+
+    public void recordRequest(String method, String endpoint, int statusCode, long nanos) {
+        record("http " + method + " " + endpoint + " " + statusCode, nanos);
+    }
+
+    public void recordSign(Key.KeyType keyType, long nanos) {
+        record("sign " + keyType, nanos);
+    }
+
+    public void recordVerify(Key.KeyType keyType, long nanos) {
+        record("verify " + keyType, nanos);
+    }
+
+    public void recordToBinary(byte transactionType, int size, long nanos) {
+        record("toBinary " + transactionType, nanos);
+        record("toBinary.size " + transactionType, size);
+    }
+
+    public void recordJsonParse(int length, long nanos) {
+        record("json.parse", nanos);
+    }
+
+    public void record(String name, long value) {
+        histograms.computeIfAbsent(name, k -> new ConcurrentHistogram(significantDigits)).recordValue(Math.max(0, value));
+    }
+
+    public HistogramSnapshot snapshot(String name) {
+        ConcurrentHistogram histogram = histograms.get(name);
+        return histogram != null ? new HistogramSnapshot(histogram.copy()) : null;
+    }
+
+    // sorted by name
+    public Map<String, HistogramSnapshot> snapshot() {
+        Map<String, HistogramSnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, new HistogramSnapshot(histogram.copy())));
+        return snapshots;
+    }
+
+    public void reset() {
+        histograms.values().forEach(ConcurrentHistogram::reset);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ltonetwork.client.metrics;
+
+import org.HdrHistogram.AbstractHistogram;
+
+public class HistogramSnapshot {
+    private final long count;
+    private final long min;
+    private final long max;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+
+    public HistogramSnapshot(long count, long min, long max, double mean, long p50, long p90, long p99, long p999) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+    }
+
+    HistogramSnapshot(AbstractHistogram histogram) {
+        this(
+                histogram.getTotalCount(),
+                histogram.getMinValue(),
+                histogram.getMaxValue(),
+                histogram.getMean(),
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9)
+        );
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public String toString() {
+        return String.format("count=%d min=%d p50=%d p90=%d p99=%d p999=%d max=%d mean=%.1f",
+                count, min, p50, p90, p99, p999, max, mean);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ltonetwork.client.metrics;
+
+import com.ltonetwork.client.types.Key;
+
+// Receives measurements from the library. All methods do nothing by default, so an implementation only needs to
+// override what it is interested in. Durations are in nanoseconds.
+public interface Metrics {
+    Metrics NOOP = new Metrics() {};
+
+    // statusCode is 0 if no response was received
+    default void recordRequest(String method, String endpoint, int statusCode, long nanos) {}
+
+    default void recordSign(Key.KeyType keyType, long nanos) {}
+
+    default void recordVerify(Key.KeyType keyType, long nanos) {}
+
+    default void recordToBinary(byte transactionType, int size, long nanos) {}
+
+    default void recordJsonParse(int length, long nanos) {}
+}
@@ -0,0 +1,21 @@
+package com.ltonetwork.client.metrics;
+
+// Holds the metrics used by the library. Instrumented code checks isEnabled() before reading the clock,
+// so there is no overhead besides a volatile read while metrics are off.
+public final class MetricsRegistry {
+    private static volatile Metrics metrics = Metrics.NOOP;
+
+    private MetricsRegistry() {}
+
+    public static Metrics get() {
+        return metrics;
+    }
+
+    public static void set(Metrics metrics) {
+        MetricsRegistry.metrics = metrics == null ? Metrics.NOOP : metrics;
+    }
+
+    public static boolean isEnabled() {
+        return metrics != Metrics.NOOP;
+    }
+}
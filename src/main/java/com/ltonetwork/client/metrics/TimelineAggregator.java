@@ -0,0 +1,73 @@
+package com.ltonetwork.client.metrics;
+
+import com.ltonetwork.client.metrics.TransactionTimeline.Stage;
+import com.ltonetwork.client.utils.LatencyWindow;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Latency breakdown per stage over the timelines of many transactions. Percentiles are based on the most recent
+// `windowSize` samples of each stage; count, mean and max on all samples.
+public class TimelineAggregator {
+    private final Map<Stage, StageStats> stats = new EnumMap<>(Stage.class);
+
+    public TimelineAggregator(int windowSize) {
+        for (Stage stage : Stage.values()) stats.put(stage, new StageStats(windowSize));
+    }
+
+    public TimelineAggregator() {
+        this(10000);
+    }
+
+    public void add(TransactionTimeline timeline) {
+        if (timeline == null) return;
+
+        for (Map.Entry<Stage, Duration> entry : timeline.durations().entrySet()) {
+            stats.get(entry.getKey()).record(entry.getValue().toNanos());
+        }
+    }
+
+    // durations in nanoseconds, only stages with samples are included
+    public Map<Stage, HistogramSnapshot> report() {
+        Map<Stage, HistogramSnapshot> report = new EnumMap<>(Stage.class);
+        stats.forEach((stage, s) -> {
+            HistogramSnapshot snapshot = s.snapshot();
+            if (snapshot != null) report.put(stage, snapshot);
+        });
+        return report;
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        report().forEach((stage, snapshot) -> builder.append(stage).append(": ").append(snapshot).append('\n'));
+        return builder.toString();
+    }
+
+    private static class StageStats {
+        private final LatencyWindow window;
+        private long count;
+        private long total;
+        private long min = Long.MAX_VALUE;
+        private long max;
+
+        StageStats(int windowSize) {
+            this.window = new LatencyWindow(windowSize);
+        }
+
+        synchronized void record(long nanos) {
+            window.record(nanos);
+            count++;
+            total += nanos;
+            min = Math.min(min, nanos);
+            max = Math.max(max, nanos);
+        }
+
+        synchronized HistogramSnapshot snapshot() {
+            if (count == 0) return null;
+
+            return new HistogramSnapshot(count, min, max, (double) total / count,
+                    window.percentile(0.5), window.percentile(0.9), window.percentile(0.99), window.percentile(0.999));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ltonetwork.client.metrics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Moments (System.nanoTime) at which a transaction passed each stage, from being built until the client first saw
+// it in a block. Stages that are repeated, like toBinary after a change, keep the latest time; CONFIRMED keeps the first.
+public class TransactionTimeline {
+    private final AtomicLongArray nanos = new AtomicLongArray(Stage.values().length);
+    private volatile int height;
+
+    // a transaction that was decoded and signed here has no build stage
+    public TransactionTimeline(boolean built) {
+        if (built) record(Stage.BUILD);
+    }
+
+    public TransactionTimeline() {
+        this(true);
+    }
+
+    public void record(Stage stage) {
+        nanos.set(stage.ordinal(), System.nanoTime());
+    }
+
+    public void recordConfirmed(int height) {
+        if (nanos.compareAndSet(Stage.CONFIRMED.ordinal(), 0, System.nanoTime())) this.height = height;
+    }
+
+    public boolean has(Stage stage) {
+        return nanos.get(stage.ordinal()) != 0;
+    }
+
+    // returns 0 if the stage wasn't reached
+    public long getNanos(Stage stage) {
+        return nanos.get(stage.ordinal());
+    }
+
+    // height of the block the transaction was first seen in, 0 if not confirmed
+    public int getHeight() {
+        return height;
+    }
+
+    public Duration between(Stage from, Stage to) {
+        if (!has(from) || !has(to)) return null;
+        return Duration.ofNanos(getNanos(to) - getNanos(from));
+    }
+
+    // time spent on each reached stage, since the previous reached stage
+    public Map<Stage, Duration> durations() {
+        Map<Stage, Duration> durations = new EnumMap<>(Stage.class);
+        Stage previous = null;
+
+        for (Stage stage : Stage.values()) {
+            if (!has(stage)) continue;
+            if (previous != null) durations.put(stage, between(previous, stage));
+            previous = stage;
+        }
+
+        return durations;
+    }
+
+    public enum Stage {
+        BUILD,
+        TO_BINARY,
+        SIGN,
+        JSON_ENCODE,
+        HTTP_SEND,
+        ACK,
+        CONFIRMED
+    }
+}
@@ -0,0 +1,28 @@
+package com.ltonetwork.client.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ltonetwork.CryptoBox")
+@Label("Crypto Box")
+@Category({"LTO", "Crypto"})
+public class CryptoBoxEvent extends Event {
+    // box, open, boxAfterNm or openAfterNm
+    @Label("Operation")
+    String operation;
+
+    @Label("Message Size")
+    @DataAmount
+    int size;
+
+    public void complete(String operation, int size) {
+        if (!shouldCommit()) return;
+
+        this.operation = operation;
+        this.size = size;
+        commit();
+    }
+}
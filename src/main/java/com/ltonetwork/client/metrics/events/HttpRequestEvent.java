@@ -0,0 +1,44 @@
+package com.ltonetwork.client.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ltonetwork.HttpRequest")
+@Label("HTTP Request")
+@Category({"LTO", "HTTP"})
+public class HttpRequestEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Host")
+    String host;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    // 0 if no response was received
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Response Size")
+    @DataAmount
+    int size;
+
+    @Label("Attempts")
+    int attempts;
+
+    public void complete(String method, String host, String endpoint, int statusCode, int size, int attempts) {
+        if (!shouldCommit()) return;
+
+        this.method = method;
+        this.host = host;
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.size = size;
+        this.attempts = attempts;
+        commit();
+    }
+}
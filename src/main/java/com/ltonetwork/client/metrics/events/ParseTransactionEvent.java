@@ -0,0 +1,31 @@
+package com.ltonetwork.client.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ltonetwork.ParseTransaction")
+@Label("Parse Transaction")
+@Category({"LTO", "Transaction"})
+public class ParseTransactionEvent extends Event {
+    @Label("Transaction Type")
+    byte transactionType;
+
+    @Label("JSON Size")
+    @DataAmount
+    int size;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    public void complete(byte transactionType, int size, String endpoint) {
+        if (!shouldCommit()) return;
+
+        this.transactionType = transactionType;
+        this.size = size;
+        this.endpoint = endpoint;
+        commit();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ltonetwork.client.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ltonetwork.Sign")
+@Label("Sign")
+@Category({"LTO", "Crypto"})
+public class SignEvent extends Event {
+    @Label("Key Type")
+    String keyType;
+
+    @Label("Message Size")
+    @DataAmount
+    int size;
+
+    public void complete(String keyType, int size) {
+        if (!shouldCommit()) return;
+
+        this.keyType = keyType;
+        this.size = size;
+        commit();
+    }
+}
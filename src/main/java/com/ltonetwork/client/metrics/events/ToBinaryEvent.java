@@ -0,0 +1,27 @@
+package com.ltonetwork.client.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ltonetwork.ToBinary")
+@Label("Transaction To Binary")
+@Category({"LTO", "Transaction"})
+public class ToBinaryEvent extends Event {
+    @Label("Transaction Type")
+    byte transactionType;
+
+    @Label("Size")
+    @DataAmount
+    int size;
+
+    public void complete(byte transactionType, int size) {
+        if (!shouldCommit()) return;
+
+        this.transactionType = transactionType;
+        this.size = size;
+        commit();
+    }
+}
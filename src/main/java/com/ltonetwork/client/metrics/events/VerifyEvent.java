@@ -0,0 +1,31 @@
+package com.ltonetwork.client.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ltonetwork.Verify")
+@Label("Verify")
+@Category({"LTO", "Crypto"})
+public class VerifyEvent extends Event {
+    @Label("Key Type")
+    String keyType;
+
+    @Label("Message Size")
+    @DataAmount
+    int size;
+
+    @Label("Valid")
+    boolean valid;
+
+    public void complete(String keyType, int size, boolean valid) {
+        if (!shouldCommit()) return;
+
+        this.keyType = keyType;
+        this.size = size;
+        this.valid = valid;
+        commit();
+    }
+}
@@ -0,0 +1,294 @@
+package com.ltonetwork.client.payout;
+
+import com.ltonetwork.client.core.Account;
+import com.ltonetwork.client.core.PublicNode;
+import com.ltonetwork.client.core.transaction.MassTransfer;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.core.transaction.TransferShort;
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Address;
+import com.ltonetwork.client.types.JsonObject;
+import com.ltonetwork.client.utils.CryptoUtil;
+import com.ltonetwork.client.utils.Encoder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Pays out a file of (address, amount) rows, streaming it twice: once to validate every row and once to pay.
+// Rows are chunked into mass transfers of at most 100 transfers, which are signed and broadcast in parallel.
+// Progress is kept in a log, so an interrupted payout can be run again and skips what was already paid.
+// At most `concurrency` chunks are held in memory, regardless of the size of the file.
+public class PayoutEngine {
+    private static final int MAX_ERRORS = 100;
+
+    private final Consumer<Transaction> signer;
+    private final Function<Transaction, Transaction> broadcaster;
+    private final Predicate<TransactionId> confirmed;
+    private final Predicate<TransactionId> pooled;
+    private final byte chainId;
+    private final int concurrency;
+
+    public PayoutEngine(PublicNode node, Account account, int concurrency) {
+        this(tx -> tx.signWith(account), node::broadcast, node::isConfirmed, node::isUnconfirmed, account.getChainId(), concurrency);
+    }
+
+    public PayoutEngine(PublicNode node, Account account) {
+        this(node, account, 4);
+    }
+
+    // confirmed and pooled check if the node already has an interrupted chunk; used for testing
+    PayoutEngine(Consumer<Transaction> signer, Function<Transaction, Transaction> broadcaster,
+                 Predicate<TransactionId> confirmed, Predicate<TransactionId> pooled, byte chainId, int concurrency) {
+        if (concurrency < 1) throw new InvalidArgumentException("Concurrency should be at least 1");
+
+        this.signer = signer;
+        this.broadcaster = broadcaster;
+        this.confirmed = confirmed;
+        this.pooled = pooled;
+        this.chainId = chainId;
+        this.concurrency = concurrency;
+    }
+
+    // returns the errors of invalid rows, at most 100
+    public List<String> validate(Path file, Format format) {
+        List<String> errors = new ArrayList<>();
+        scan(file, format, row -> {}, error -> {
+            if (errors.size() < MAX_ERRORS) errors.add(error);
+        });
+        return errors;
+    }
+
+    // nothing is paid if any row is invalid
+    public Report run(Path file, Format format, Path progressLog) {
+        List<String> errors = new ArrayList<>();
+        AtomicInteger invalid = new AtomicInteger();
+        Report report = new Report();
+        String digest = scan(file, format, row -> report.add(row.getAmount()), error -> {
+            if (invalid.getAndIncrement() < MAX_ERRORS) errors.add(error);
+        });
+
+        if (invalid.get() > 0) {
+            throw new InvalidArgumentException(String.format("Invalid payout file, %d invalid rows: %s", invalid.get(),
+                    String.join("; ", errors.subList(0, Math.min(10, errors.size())))));
+        }
+
+        try (PayoutLog log = PayoutLog.open(progressLog, digest)) {
+            report.skipped = log.countDone();
+            pay(file, format, log, report);
+        }
+
+        return report;
+    }
+
+    private void pay(Path file, Format format, PayoutLog log, Report report) {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "lto-payout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicInteger chunks = new AtomicInteger();
+        List<TransferShort> transfers = new ArrayList<>(MassTransfer.MAX_TRANSFERS);
+
+        Consumer<List<TransferShort>> submit = chunk -> {
+            int index = chunks.getAndIncrement();
+            // stops reading the file after a failure
+            if (failure.get() != null) throw failure.get();
+            if (log.isDone(index)) return;
+
+            inFlight.acquireUninterruptibly();
+            executor.execute(() -> {
+                try {
+                    if (failure.get() != null) return;
+                    payChunk(index, chunk, log);
+                    report.sent.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        };
+
+        try {
+            scan(file, format, row -> {
+                transfers.add(row);
+                if (transfers.size() == MassTransfer.MAX_TRANSFERS) {
+                    submit.accept(new ArrayList<>(transfers));
+                    transfers.clear();
+                }
+            }, error -> {
+                throw new InvalidArgumentException("Payout file changed: " + error);
+            });
+            if (!transfers.isEmpty()) submit.accept(new ArrayList<>(transfers));
+        } finally {
+            inFlight.acquireUninterruptibly(concurrency);
+            executor.shutdown();
+        }
+
+        report.chunks = chunks.get();
+        if (failure.get() != null) throw failure.get();
+    }
+
+    private void payChunk(int index, List<TransferShort> transfers, PayoutLog log) {
+        MassTransfer transaction = new MassTransfer();
+        for (TransferShort transfer : transfers) transaction.addTransfer(transfer.getRecipient(), transfer.getAmount());
+
+        Long timestamp = log.getSignedTimestamp(index);
+        if (timestamp == null) {
+            signer.accept(transaction);
+            log.signed(index, transaction.getTimestamp(), String.valueOf(transaction.getId()));
+        } else {
+            // signed before the run was interrupted, and maybe broadcast
+            TransactionId id = new TransactionId(log.getSignedId(index));
+            if (isKnown(id)) {
+                log.done(index);
+                return;
+            }
+
+            transaction.setTimestamp(timestamp);
+            signer.accept(transaction);
+            if (!id.equals(transaction.getId()))
+                throw new BadMethodCallException(String.format(
+                        "Chunk %d was signed as %s, but is rebuilt as %s; the fee or the account changed",
+                        index, id, transaction.getId()));
+        }
+
+        try {
+            broadcaster.apply(transaction);
+        } catch (HttpResponseException e) {
+            // the node also rejects a transaction it already has
+            if (e.isRetryable() || !isKnown(transaction.getId())) throw e;
+        }
+        log.done(index);
+    }
+
+    private boolean isKnown(TransactionId id) {
+        return confirmed.test(id) || pooled.test(id);
+    }
+
+    // returns the SHA-256 of the file, hex encoded
+    private String scan(Path file, Format format, Consumer<TransferShort> rows, Consumer<String> errors) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new DigestInputStream(Files.newInputStream(file), digest), StandardCharsets.UTF_8))) {
+            int number = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                number++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] fields = format == Format.CSV ? line.split(",") : fromJson(line);
+                // the first line of a CSV file may be the `address,amount` header; any other row must be valid
+                if (format == Format.CSV && number == 1 && isHeader(fields)) continue;
+
+                TransferShort row = parse(fields);
+                if (row == null) errors.accept(String.format("line %d: invalid row '%s'", number, line));
+                else rows.accept(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read payout file " + file, e);
+        }
+
+        return Encoder.hexEncode(digest.digest());
+    }
+
+    private TransferShort parse(String[] fields) {
+        if (fields == null || fields.length != 2) return null;
+
+        String address = fields[0].trim();
+        long amount;
+        try {
+            amount = Long.parseLong(fields[1].trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (amount <= 0 || !CryptoUtil.isValidAddress(address, chainId)) return null;
+        return new TransferShort(new Address(address), amount);
+    }
+
+    private static boolean isHeader(String[] fields) {
+        return fields.length == 2 && fields[0].trim().equalsIgnoreCase("address")
+                && fields[1].trim().equalsIgnoreCase("amount");
+    }
+
+    private static String[] fromJson(String line) {
+        try {
+            JsonObject json = new JsonObject(line);
+            if (!json.has("address") || !json.has("amount")) return null;
+            return new String[]{json.get("address").toString(), json.get("amount").toString()};
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public enum Format {
+        CSV,
+        // one JSON object per line, with `address` and `amount`
+        NDJSON
+    }
+
+    public static class Report {
+        private int chunks;
+        private int skipped;
+        private final AtomicInteger sent = new AtomicInteger();
+        private long transfers;
+        private long amount;
+
+        private void add(long amount) {
+            this.transfers++;
+            this.amount += amount;
+        }
+
+        // number of mass transfers the payout consists of
+        public int getChunks() {
+            return chunks;
+        }
+
+        // mass transfers that were paid by an earlier run
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getSent() {
+            return sent.get();
+        }
+
+        public long getTransfers() {
+            return transfers;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ltonetwork.client.payout;
+
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+// Append-only progress log of a payout. A chunk is logged as signed, with its timestamp and transaction id, before
+// it's broadcast, and as done once the node accepted it. A chunk that's signed but not done is looked up by the logged
+// id, and only rebuilt and broadcast again if the node doesn't have it. It's rebuilt with the same timestamp, so it
+// gets the same id and can't be paid twice.
+//
+// header: lto-payout 1 <sha-256 of the payout file>
+// signed: S <chunk> <timestamp> <transaction id>
+// done:   D <chunk>
+class PayoutLog implements AutoCloseable {
+    private static final String HEADER = "lto-payout 1 ";
+
+    private final FileChannel channel;
+    private final BitSet done = new BitSet();
+    private final Map<Integer, Signed> signed = new HashMap<>();
+
+    private PayoutLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static PayoutLog open(Path file, String digest) {
+        try {
+            boolean exists = Files.exists(file) && Files.size(file) > 0;
+            boolean terminated = exists && endsWithNewline(file);
+            PayoutLog log = new PayoutLog(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+
+            if (exists) log.read(file, digest, terminated);
+            else log.write(HEADER + digest + "\n");
+
+            // a line cut off by a crash is ended, so the next one isn't appended to it
+            if (exists && !terminated) log.write("\n");
+
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open payout log " + file, e);
+        }
+    }
+
+    synchronized boolean isDone(int chunk) {
+        return done.get(chunk);
+    }
+
+    synchronized int countDone() {
+        return done.cardinality();
+    }
+
+    // timestamp of a chunk that was signed but isn't done, null otherwise
+    synchronized Long getSignedTimestamp(int chunk) {
+        Signed entry = signed.get(chunk);
+        return entry == null ? null : entry.timestamp;
+    }
+
+    // transaction id of a chunk that was signed but isn't done, null otherwise
+    synchronized String getSignedId(int chunk) {
+        Signed entry = signed.get(chunk);
+        return entry == null ? null : entry.id;
+    }
+
+    synchronized void signed(int chunk, long timestamp, String id) {
+        write(String.format("S %d %d %s\n", chunk, timestamp, id));
+        signed.put(chunk, new Signed(timestamp, id));
+    }
+
+    synchronized void done(int chunk) {
+        write(String.format("D %d\n", chunk));
+        signed.remove(chunk);
+        done.set(chunk);
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void read(Path file, String digest, boolean terminated) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER)) {
+                close();
+                throw new BadMethodCallException("Not a payout log: " + file);
+            }
+            if (!header.substring(HEADER.length()).equals(digest)) {
+                close();
+                throw new BadMethodCallException("Payout log " + file + " belongs to a different payout file");
+            }
+
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                // only a line ended by a newline was written completely; one cut off by a crash is ignored and the
+                // chunk is resolved again
+                if (next == null && !terminated) break;
+
+                String[] fields = line.split(" ");
+                if (fields[0].equals("S") && fields.length == 4) {
+                    signed.put(Integer.parseInt(fields[1]), new Signed(Long.parseLong(fields[2]), fields[3]));
+                } else if (fields[0].equals("D") && fields.length == 2) {
+                    done.set(Integer.parseInt(fields[1]));
+                    signed.remove(Integer.parseInt(fields[1]));
+                }
+
+                line = next;
+            }
+        }
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            in.read(last, in.size() - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    // forced to disk, a chunk must be logged as signed before it's broadcast
+    private void write(String line) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write payout log", e);
+        }
+    }
+
+    private static class Signed {
+        private final long timestamp;
+        private final String id;
+
+        private Signed(long timestamp, String id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+    }
+}
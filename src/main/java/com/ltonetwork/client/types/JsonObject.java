@@ -1,8 +1,11 @@
 package com.ltonetwork.client.types;
 
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.metrics.MetricsRegistry;
 import com.ltonetwork.client.utils.Encoder;
 import org.apache.wink.json4j.JSONArray;
 import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONObject;
 import org.apache.wink.json4j.OrderedJSONObject;
 
 import java.util.Iterator;
@@ -13,7 +16,8 @@ public class JsonObject {
 
     private final int type;
 
-    private OrderedJSONObject object;
+    // parsed objects are ordered, but objects nested in a parsed array are plain JSONObjects; both are wrapped as is
+    private JSONObject object;
     private JSONArray array;
 
     public JsonObject(boolean isArray) {
@@ -37,7 +41,13 @@ public class JsonObject {
             this.type = OBJECT;
         }
 
-        init(string);
+        if (MetricsRegistry.isEnabled()) {
+            long start = System.nanoTime();
+            init(string);
+            MetricsRegistry.get().recordJsonParse(string.length(), System.nanoTime() - start);
+        } else {
+            init(string);
+        }
     }
 
     public JsonObject(String string) {
@@ -45,19 +55,32 @@ public class JsonObject {
     }
 
 
-    public OrderedJSONObject getObject() {
+    public JSONObject getObject() {
         if (type == OBJECT) {
             return object;
         }
         return null;
     }
 
-    public void setObject(OrderedJSONObject object) {
+    public void setObject(JSONObject object) {
         if (type == OBJECT) {
             this.object = object;
         }
     }
 
+    public JSONArray getArray() {
+        if (type == ARRAY) {
+            return array;
+        }
+        return null;
+    }
+
+    public void setArray(JSONArray array) {
+        if (type == ARRAY) {
+            this.array = array;
+        }
+    }
+
     public boolean isArray() {
         return type == ARRAY;
     }
@@ -127,7 +150,7 @@ public class JsonObject {
         if (type == OBJECT) {
             JsonObject obj = new JsonObject();
             try {
-                obj.setObject((OrderedJSONObject) object.getJSONObject(key));
+                obj.setObject(object.getJSONObject(key));
             } catch (JSONException e) {
                 // TODO Auto-generated catch block
                 e.printStackTrace();
@@ -138,6 +161,45 @@ public class JsonObject {
         return null;
     }
 
+    // throws if the key is missing or isn't an array, so a malformed object isn't mistaken for an empty array
+    public JsonObject getJsonArray(String key) {
+        if (type != OBJECT) return null;
+
+        JSONArray value;
+        try {
+            value = object.getJSONArray(key);
+        } catch (JSONException e) {
+            value = null;
+        }
+        if (value == null) throw new InvalidArgumentException("Expected an array for key '" + key + "'");
+
+        JsonObject arr = new JsonObject(true);
+        arr.setArray(value);
+        return arr;
+    }
+
+    public JsonObject getJsonArray(int index) {
+        if (type != ARRAY) return null;
+
+        Object value = array.get(index);
+        if (!(value instanceof JSONArray)) return new JsonObject(value.toString(), true);
+
+        JsonObject arr = new JsonObject(true);
+        arr.setArray((JSONArray) value);
+        return arr;
+    }
+
+    public JsonObject getJsonObject(int index) {
+        if (type != ARRAY) return null;
+
+        Object value = array.get(index);
+        if (!(value instanceof JSONObject)) return new JsonObject(value.toString());
+
+        JsonObject obj = new JsonObject();
+        obj.setObject((JSONObject) value);
+        return obj;
+    }
+
     public String get(int index) {
         if (type == ARRAY) {
             return array.get(index).toString();
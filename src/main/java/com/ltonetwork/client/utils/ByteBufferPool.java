@@ -0,0 +1,66 @@
+package com.ltonetwork.client.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pool of equally sized heap buffers, so request bodies don't allocate once the pool is warm. At most `maxPooled`
+// free buffers are kept; buffers released beyond that are left to the garbage collector.
+public class ByteBufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong allocated = new AtomicLong();
+
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 1) throw new IllegalArgumentException("Buffer size should be at least 1");
+        if (maxPooled < 0) throw new IllegalArgumentException("Max pooled buffers should not be negative");
+
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    public ByteBufferPool() {
+        this(8 * 1024, 256);
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocate(bufferSize);
+        }
+
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || buffer.isReadOnly()) return;
+
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+
+        buffer.clear();
+        free.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    // free buffers in the pool
+    public int available() {
+        return pooled.get();
+    }
+
+    // buffers allocated because the pool was empty
+    public long getAllocatedCount() {
+        return allocated.get();
+    }
+}
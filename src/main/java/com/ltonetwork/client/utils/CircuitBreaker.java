@@ -0,0 +1,90 @@
+package com.ltonetwork.client.utils;
+
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+
+import java.time.Duration;
+
+// Stops sending requests to a node once the failure rate over the last `windowSize` calls reaches the threshold.
+// After `openDuration` a single trial call is let through; if it succeeds the circuit closes again.
+public class CircuitBreaker {
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private int calls;
+    private int failures;
+    private int next;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(double failureRateThreshold, int windowSize, Duration openDuration) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1)
+            throw new IllegalArgumentException("Failure rate threshold should be between 0 and 1");
+        if (windowSize < 1) throw new IllegalArgumentException("Window size should be at least 1");
+
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.window = new boolean[windowSize];
+    }
+
+    public CircuitBreaker() {
+        this(0.5, 20, Duration.ofSeconds(30));
+    }
+
+    public synchronized void acquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialInFlight)) {
+            throw new RejectedRequestException("Circuit breaker is open");
+        }
+
+        if (state == State.HALF_OPEN) trialInFlight = true;
+    }
+
+    public synchronized void record(boolean success) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (success) close();
+            else open();
+            return;
+        }
+
+        if (calls == window.length && window[next]) failures--;
+        if (calls < window.length) calls++;
+        window[next] = !success;
+        if (!success) failures++;
+        next = (next + 1) % window.length;
+
+        if (state == State.CLOSED && calls == window.length && failures >= failureRateThreshold * calls) open();
+    }
+
+    // gives back a permit of a request that wasn't sent, without recording an outcome
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        next = 0;
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,69 @@
+package com.ltonetwork.client.utils;
+
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+
+// Adaptive limit on the number of in-flight requests (AIMD). The limit grows by one for each successful call made
+// while the limit was being used, and is multiplied by `backoffRatio` when a call fails or its latency exceeds
+// `tolerance` times the long term average latency. Requests over the limit are rejected rather than queued.
+public class ConcurrencyLimiter {
+    // weight of a sample in the long term average latency
+    private static final double BASELINE_ALPHA = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+
+    private double limit;
+    private int inFlight;
+    private double baselineNanos;
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit)
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= initialLimit <= maxLimit");
+        if (backoffRatio <= 0 || backoffRatio >= 1) throw new IllegalArgumentException("Backoff ratio should be between 0 and 1");
+        if (tolerance <= 1) throw new IllegalArgumentException("Tolerance should be greater than 1");
+
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+    }
+
+    public ConcurrencyLimiter() {
+        this(20, 1, 200, 0.9, 2.0);
+    }
+
+    // returns the number of in-flight requests when acquired, to pass to release
+    public synchronized int acquire() {
+        if (inFlight >= (int) limit) {
+            throw new RejectedRequestException("Concurrency limit of " + (int) limit + " reached");
+        }
+        return ++inFlight;
+    }
+
+    public synchronized void release(int inFlightAtStart, long latencyNanos, boolean success) {
+        inFlight--;
+
+        boolean congested = baselineNanos > 0 && latencyNanos > tolerance * baselineNanos;
+        baselineNanos = baselineNanos == 0
+                ? latencyNanos
+                : BASELINE_ALPHA * latencyNanos + (1 - BASELINE_ALPHA) * baselineNanos;
+
+        if (!success || congested) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlightAtStart * 2 >= limit) {
+            // only grow when the limit is actually the bottleneck
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -7,13 +7,20 @@ import com.goterl.lazysodium.interfaces.Box;
 import com.goterl.lazysodium.interfaces.GenericHash;
 import com.goterl.lazysodium.interfaces.Sign;
 import com.goterl.lazysodium.utils.LibraryLoader;
+import com.ltonetwork.client.metrics.MetricsRegistry;
+import com.ltonetwork.client.metrics.events.CryptoBoxEvent;
+import com.ltonetwork.client.metrics.events.SignEvent;
+import com.ltonetwork.client.metrics.events.VerifyEvent;
 import com.ltonetwork.client.types.*;
+import com.ltonetwork.seasalt.hash.Blake2b256;
+import com.ltonetwork.seasalt.hash.SHA256;
 import com.ltonetwork.seasalt.sign.ECDSA;
 import com.ltonetwork.seasalt.sign.Ed25519;
 import com.ltonetwork.seasalt.sign.Signature;
 
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 public class CryptoUtil {
 
@@ -43,6 +50,17 @@ public class CryptoUtil {
 //        return Encoder.decode(address, encoding).length() == 23;
     }
 
+    // checks the length, version, network and checksum of a base58 address
+    public static boolean isValidAddress(String address, byte chainId) {
+        if (address.isEmpty() || !Encoder.isBase58Encoded(address)) return false;
+
+        byte[] bytes = Encoder.base58Decode(address);
+        if (bytes.length != 26 || bytes[0] != 1 || bytes[1] != chainId) return false;
+
+        byte[] checksum = SHA256.hash(Blake2b256.hash(Arrays.copyOfRange(bytes, 0, 22))).getBytes();
+        return Arrays.equals(Arrays.copyOfRange(checksum, 0, 4), Arrays.copyOfRange(bytes, 22, 26));
+    }
+
     // encrypting
     public static int cryptoBoxNoncebytes() {
         return Box.NONCEBYTES;
@@ -50,20 +68,66 @@ public class CryptoUtil {
 
     public static byte[] cryptoBox(byte[] nonce, byte[] message, byte[] publicKey, byte[] privatekey) {
         com.goterl.lazysodium.utils.KeyPair kp = lazySodiumKeypair(publicKey, privatekey);
+        CryptoBoxEvent event = new CryptoBoxEvent();
+        event.begin();
         try {
             return sodium.cryptoBoxEasy(new String(message, StandardCharsets.UTF_8), nonce, kp).getBytes();
         } catch (SodiumException e) {
             throw new IllegalArgumentException("Unable to create crypto box");
+        } finally {
+            event.complete("box", message.length);
         }
     }
 
     public static byte[] cryptoBoxOpen(byte[] nonce, byte[] ciphertext, byte[] publicKey, byte[] privatekey) {
         com.goterl.lazysodium.utils.KeyPair kp = lazySodiumKeypair(publicKey, privatekey);
+        CryptoBoxEvent event = new CryptoBoxEvent();
+        event.begin();
         try {
             return sodium.cryptoBoxOpenEasy(new String(ciphertext, StandardCharsets.UTF_8), nonce, kp).getBytes();
         } catch (SodiumException e) {
             e.printStackTrace();
             return null;
+        } finally {
+            event.complete("open", ciphertext.length);
+        }
+    }
+
+    // the shared key as bytes, so a caller can wipe it
+    public static byte[] cryptoBoxSharedKey(byte[] publicKey, byte[] privateKey) {
+        byte[] sharedKey = new byte[Box.BEFORENMBYTES];
+        if (!sodium.cryptoBoxBeforeNm(sharedKey, publicKey, privateKey)) {
+            throw new IllegalArgumentException("Unable to calculate crypto box shared key");
+        }
+        return sharedKey;
+    }
+
+    // same hex encoded box as cryptoBox
+    public static byte[] cryptoBoxAfterNm(byte[] nonce, byte[] message, byte[] sharedKey) {
+        CryptoBoxEvent event = new CryptoBoxEvent();
+        event.begin();
+        try {
+            byte[] box = new byte[Box.MACBYTES + message.length];
+            if (!sodium.cryptoBoxEasyAfterNm(box, message, message.length, nonce, sharedKey)) {
+                throw new IllegalArgumentException("Unable to create crypto box");
+            }
+            return sodium.sodiumBin2Hex(box).getBytes();
+        } finally {
+            event.complete("boxAfterNm", message.length);
+        }
+    }
+
+    public static byte[] cryptoBoxOpenAfterNm(byte[] nonce, byte[] ciphertext, byte[] sharedKey) {
+        CryptoBoxEvent event = new CryptoBoxEvent();
+        event.begin();
+        try {
+            byte[] box = sodium.sodiumHex2Bin(new String(ciphertext, StandardCharsets.UTF_8));
+            if (box.length < Box.MACBYTES) return null;
+
+            byte[] message = new byte[box.length - Box.MACBYTES];
+            return sodium.cryptoBoxOpenEasyAfterNm(message, box, box.length, nonce, sharedKey) ? message : null;
+        } finally {
+            event.complete("openAfterNm", ciphertext.length);
         }
     }
 
@@ -142,13 +206,43 @@ public class CryptoUtil {
     }
 
     public static Signature signDetached(byte[] message, PrivateKey privateKey) {
-        switch (privateKey.getType()) {
+        return signDetached(message, privateKey.getRaw(), privateKey.getType());
+    }
+
+    public static Signature signDetached(byte[] message, byte[] privateKey, Key.KeyType keyType) {
+        boolean measure = MetricsRegistry.isEnabled();
+        long start = measure ? System.nanoTime() : 0;
+        SignEvent event = new SignEvent();
+        event.begin();
+
+        Signature signature = sign(message, privateKey, keyType);
+
+        event.complete(keyType.toString(), message.length);
+        if (measure) MetricsRegistry.get().recordSign(keyType, System.nanoTime() - start);
+        return signature;
+    }
+
+    public static boolean verify(Signature signature, byte[] message, PublicKey publicKey) {
+        boolean measure = MetricsRegistry.isEnabled();
+        long start = measure ? System.nanoTime() : 0;
+        VerifyEvent event = new VerifyEvent();
+        event.begin();
+
+        boolean valid = verifyDetached(signature, message, publicKey);
+
+        event.complete(publicKey.getType().toString(), message.length, valid);
+        if (measure) MetricsRegistry.get().recordVerify(publicKey.getType(), System.nanoTime() - start);
+        return valid;
+    }
+
+    private static Signature sign(byte[] message, byte[] privateKey, Key.KeyType keyType) {
+        switch (keyType) {
             case ED25519:
-                return ed25519.signDetached(message, privateKey.getRaw());
+                return ed25519.signDetached(message, privateKey);
             case SECP256K1:
-                return secp256k1.signDetached(message, privateKey.getRaw());
+                return secp256k1.signDetached(message, privateKey);
             case SECP256R1:
-                return secp256r1.signDetached(message, privateKey.getRaw());
+                return secp256r1.signDetached(message, privateKey);
             case CURVE25519:
                 throw new IllegalArgumentException("Cannot sign message with encryption CURVE25519 key pair");
             default:
@@ -156,7 +250,7 @@ public class CryptoUtil {
         }
     }
 
-    public static boolean verify(Signature signature, byte[] message, PublicKey publicKey) {
+    private static boolean verifyDetached(Signature signature, byte[] message, PublicKey publicKey) {
         switch (publicKey.getType()) {
             case ED25519:
                 return ed25519.verify(message, signature.getBytes(), publicKey.getRaw());
@@ -2,6 +2,9 @@ package com.ltonetwork.client.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.metrics.events.HttpRequestEvent;
 
 import java.io.IOException;
 import java.net.URI;
@@ -10,12 +13,51 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 public class HttpClientUtil {
 
     private static final HttpClient client = HttpClient.newHttpClient();
 
+    // hedging needs enough samples for a meaningful p95
+    private static final int HEDGE_MIN_SAMPLES = 20;
+    // a hedged request that loses isn't aborted, so the number of extra requests in flight is capped
+    private static final int MAX_HEDGES_IN_FLIGHT = 16;
+    private static final AtomicInteger hedgesInFlight = new AtomicInteger();
+    private static final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    private static volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private static volatile boolean hedgedReads = false;
+
+    // applies to GET and DELETE requests only, which are idempotent
+    public static void setRetryPolicy(RetryPolicy policy) {
+        retryPolicy = policy;
+    }
+
+    public static RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    // when enabled, a GET that takes longer than the p95 latency of its host is sent a second time, and the first
+    // successful response to arrive is used
+    public static void setHedgedReads(boolean enabled) {
+        hedgedReads = enabled;
+    }
+
+    public static boolean isHedgedReads() {
+        return hedgedReads;
+    }
+
     public static HttpResponse<String> get(URI uri) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(uri)
@@ -113,6 +155,39 @@ public class HttpClientUtil {
         return sendRequest(request);
     }
 
+    // sent from the buffers of the body. The body is released by this call, once the client is done with the request;
+    // that may be after it returns, e.g. when the caller was interrupted.
+    public static HttpResponse<String> post(URI uri, PooledBody body) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "application/json")
+                    .POST(body.publisher())
+                    .build();
+        } catch (RuntimeException e) {
+            body.release();
+            throw e;
+        }
+
+        return sendRequest(request, r -> send(r, body));
+    }
+
+    // the body is sent as given, e.g. a transaction that was serialized before
+    public static HttpResponse<String> postJson(URI uri, String body) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return sendRequest(request);
+    }
+
     public static HttpResponse<String> postScript(URI uri, String script) {
         ObjectMapper objectMapper = new ObjectMapper();
         String requestBody = "";
@@ -164,15 +239,175 @@ public class HttpClientUtil {
     }
 
     private static HttpResponse<String> sendRequest(HttpRequest request) {
-        HttpResponse<String> resp = null;
+        return sendRequest(request, HttpClientUtil::send);
+    }
+
+    private static HttpResponse<String> sendRequest(HttpRequest request, Function<HttpRequest, HttpResponse<String>> sender) {
+        boolean idempotent = request.method().equals("GET") || request.method().equals("DELETE");
+        RetryPolicy policy = idempotent ? retryPolicy : RetryPolicy.NONE;
+
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        int statusCode = 0;
+        int size = 0;
+        int attempt = 1;
+
         try {
-            resp = client.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException | InterruptedException e) {
-            e.printStackTrace();
+            for (; ; attempt++) {
+                statusCode = 0;
+                try {
+                    HttpResponse<String> resp = hedgedReads && request.method().equals("GET")
+                            ? sendHedged(request)
+                            : sender.apply(request);
+                    statusCode = resp.statusCode();
+                    size = resp.body() != null ? resp.body().length() : 0;
+                    return checkStatus(resp);
+                } catch (HttpRequestException e) {
+                    if (!e.isRetryable() || attempt >= policy.getMaxAttempts()) throw e;
+                    sleep(policy.backoff(attempt));
+                }
+            }
+        } finally {
+            event.complete(request.method(), request.uri().getHost(), request.uri().getPath(), statusCode, size, attempt);
+        }
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> resp = client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies(request).record(System.nanoTime() - start);
+            return resp;
+        } catch (IOException e) {
+            throw new HttpRequestException("Request to " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpRequestException("Request to " + request.uri() + " was interrupted", e, false);
+        }
+    }
+
+    // a POST isn't retried, so the body is sent once. It's released when the exchange completes rather than when
+    // waiting for it stops, as the client may still be reading from it.
+    private static HttpResponse<String> send(HttpRequest request, PooledBody body) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> future;
+        try {
+            future = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            body.release();
+            throw e;
+        }
+        future.whenComplete((resp, e) -> body.release());
+
+        HttpResponse<String> resp = await(request, future);
+        latencies(request).record(System.nanoTime() - start);
+        return resp;
+    }
+
+    private static HttpResponse<String> sendHedged(HttpRequest request) {
+        LatencyWindow window = latencies(request);
+        if (window.size() < HEDGE_MIN_SAMPLES) return send(request);
+
+        CompletableFuture<HttpResponse<String>> first = sendAsync(request, window);
+        try {
+            return first.get(window.percentile(0.95), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (hedgesInFlight.incrementAndGet() > MAX_HEDGES_IN_FLIGHT) {
+                hedgesInFlight.decrementAndGet();
+                return await(request, first);
+            }
+
+            CompletableFuture<HttpResponse<String>> second = sendAsync(request, window);
+            second.whenComplete((resp, ex) -> hedgesInFlight.decrementAndGet());
+            return await(request, firstSuccessful(first, second));
+        } catch (ExecutionException e) {
+            throw requestException(request, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpRequestException("Request to " + request.uri() + " was interrupted", e, false);
+        }
+    }
+
+    // cancelling the future doesn't abort the exchange on Java 11; the request runs until it completes or times out
+    private static CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request, LatencyWindow window) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> future = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        future.thenAccept(resp -> window.record(System.nanoTime() - start));
+        return future;
+    }
+
+    // completes with the first 2xx response, the response of the other request is dropped; if neither succeeds,
+    // completes with the outcome of the request that finished last, preferring an error response over an exception
+    private static CompletableFuture<HttpResponse<String>> firstSuccessful(
+            CompletableFuture<HttpResponse<String>> first,
+            CompletableFuture<HttpResponse<String>> second
+    ) {
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicReference<HttpResponse<String>> failedResponse = new AtomicReference<>();
+
+        for (CompletableFuture<HttpResponse<String>> future : List.of(first, second)) {
+            future.whenComplete((resp, e) -> {
+                if (resp != null && isSuccess(resp)) {
+                    result.complete(resp);
+                    return;
+                }
+
+                if (resp != null) failedResponse.set(resp);
+                if (completed.incrementAndGet() < 2) return;
+
+                if (failedResponse.get() != null) result.complete(failedResponse.get());
+                else result.completeExceptionally(e);
+            });
+        }
+
+        return result;
+    }
+
+    private static HttpResponse<String> await(HttpRequest request, CompletableFuture<HttpResponse<String>> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw requestException(request, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpRequestException("Request to " + request.uri() + " was interrupted", e, false);
+        }
+    }
+
+    private static HttpRequestException requestException(HttpRequest request, Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) cause = cause.getCause();
+        return new HttpRequestException("Request to " + request.uri() + " failed", cause);
+    }
+
+    private static boolean isSuccess(HttpResponse<String> resp) {
+        return resp.statusCode() >= 200 && resp.statusCode() < 300;
+    }
+
+    private static HttpResponse<String> checkStatus(HttpResponse<String> resp) {
+        if (!isSuccess(resp)) {
+            throw new HttpResponseException(
+                    "Request to " + resp.request().uri() + " failed with status " + resp.statusCode(),
+                    resp.statusCode(),
+                    resp.body()
+            );
         }
         return resp;
     }
 
+    private static LatencyWindow latencies(HttpRequest request) {
+        return latencies.computeIfAbsent(request.uri().getAuthority(), k -> new LatencyWindow(256));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpRequestException("Interrupted while waiting to retry", e, false);
+        }
+    }
+
     private static void addHeaders(HttpRequest.Builder requestBuilder, Map<String, String> headers) {
         ArrayList<String> keys = new ArrayList<String>(headers.keySet());
         ArrayList<String> values = new ArrayList<String>(headers.values());
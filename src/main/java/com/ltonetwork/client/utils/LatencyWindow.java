@@ -0,0 +1,37 @@
+package com.ltonetwork.client.utils;
+
+import java.util.Arrays;
+
+// Keeps the most recent latency samples, to estimate percentiles of the current latency distribution.
+public class LatencyWindow {
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    // returns -1 when there are no samples
+    public long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) return -1;
+            sorted = Arrays.copyOf(samples, count);
+        }
+
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,187 @@
+package com.ltonetwork.client.utils;
+
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Request body that is written into buffers of a pool and sent from them, without building a string or copying it
+// into a byte array. The buffers go back to the pool once the body is released and no subscription to it is still
+// running, so a request the caller stopped waiting for can't send buffers that are reused. HttpClientUtil releases the
+// body when the request completes. close() doesn't release, as serializers close the stream they write to.
+public class PooledBody extends OutputStream {
+    private final ByteBufferPool pool;
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private ByteBuffer current;
+    private long length;
+    private int subscriptions;
+    private boolean released;
+
+    public PooledBody(ByteBufferPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        next().put((byte) b);
+        length++;
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int count) {
+        while (count > 0) {
+            ByteBuffer buffer = next();
+            int n = Math.min(count, buffer.remaining());
+            buffer.put(bytes, offset, n);
+            offset += n;
+            count -= n;
+            length += n;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public synchronized long length() {
+        return length;
+    }
+
+    // can be subscribed more than once, e.g. when a request is sent again
+    public synchronized HttpRequest.BodyPublisher publisher() {
+        if (released) throw new BadMethodCallException("Body is released");
+
+        List<ByteBuffer> content = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            ByteBuffer view = buffer.asReadOnlyBuffer();
+            view.flip();
+            content.add(view);
+        }
+
+        return new Publisher(content, length);
+    }
+
+    public synchronized void release() {
+        if (released) return;
+        released = true;
+
+        if (subscriptions == 0) free();
+    }
+
+    private synchronized boolean subscribed() {
+        if (released) return false;
+
+        subscriptions++;
+        return true;
+    }
+
+    private synchronized void unsubscribed() {
+        if (--subscriptions == 0 && released) free();
+    }
+
+    private void free() {
+        for (ByteBuffer buffer : buffers) pool.release(buffer);
+        buffers.clear();
+        current = null;
+    }
+
+    private ByteBuffer next() {
+        if (released) throw new BadMethodCallException("Body is released");
+
+        if (current == null || !current.hasRemaining()) {
+            current = pool.acquire();
+            buffers.add(current);
+        }
+        return current;
+    }
+
+    private class Publisher implements HttpRequest.BodyPublisher {
+        private final List<ByteBuffer> content;
+        private final long length;
+
+        Publisher(List<ByteBuffer> content, long length) {
+            this.content = content;
+            this.length = length;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            if (!subscribed()) {
+                subscriber.onSubscribe(new Subscription(subscriber, Collections.emptyList(), () -> {}));
+                subscriber.onError(new BadMethodCallException("Body is released"));
+                return;
+            }
+
+            subscriber.onSubscribe(new Subscription(subscriber, content, PooledBody.this::unsubscribed));
+        }
+    }
+
+    // emits a view of each buffer on demand; request may be called from onNext, so one caller drains at a time.
+    // onDone runs once, when the subscription completes, fails or is cancelled.
+    private static class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final List<ByteBuffer> content;
+        private final Runnable onDone;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger draining = new AtomicInteger();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile boolean done;
+        private int next;
+
+        Subscription(Flow.Subscriber<? super ByteBuffer> subscriber, List<ByteBuffer> content, Runnable onDone) {
+            this.subscriber = subscriber;
+            this.content = content;
+            this.onDone = onDone;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) return;
+            if (n <= 0) {
+                done = true;
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " buffers"));
+                finish();
+                return;
+            }
+
+            demand.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+            if (draining.getAndIncrement() != 0) return;
+
+            do {
+                while (!done && next < content.size() && demand.get() > 0) {
+                    demand.decrementAndGet();
+                    subscriber.onNext(content.get(next++).duplicate());
+                }
+
+                if (!done && next == content.size()) {
+                    done = true;
+                    subscriber.onComplete();
+                    finish();
+                }
+            } while (draining.decrementAndGet() != 0);
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            finish();
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) onDone.run();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ltonetwork.client.utils;
+
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Token bucket: permits are added at a fixed rate, up to `burst` permits can be saved up.
+// Waiting callers reserve their permit up front, so they are served in order and the bucket never overdraws.
+public class RateLimiter {
+    private final double permitsPerNano;
+    private final double burst;
+    private final Mode mode;
+
+    private double tokens;
+    private long updatedAt;
+
+    public RateLimiter(double permitsPerSecond, int burst, Mode mode) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("Permits per second should be positive");
+        if (burst < 1) throw new IllegalArgumentException("Burst should be at least 1");
+
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.mode = mode;
+        this.tokens = burst;
+        this.updatedAt = System.nanoTime();
+    }
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, Mode.BLOCK);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // takes a permit, either waiting for it or throwing a RejectedRequestException depending on the mode
+    public void permit() {
+        if (mode == Mode.BLOCK) {
+            acquire();
+        } else if (!tryAcquire()) {
+            throw new RejectedRequestException("Rate limit exceeded");
+        }
+    }
+
+    // like permit, without blocking; in REJECT mode the future fails right away when there's no permit
+    public CompletableFuture<Void> permitAsync() {
+        if (mode == Mode.BLOCK) return acquireAsync();
+
+        return tryAcquire()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.failedFuture(new RejectedRequestException("Rate limit exceeded"));
+    }
+
+    public void acquire() {
+        long wait = reserve();
+        if (wait == 0) return;
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpRequestException("Interrupted while waiting for the rate limit", e, false);
+        }
+    }
+
+    public CompletableFuture<Void> acquireAsync() {
+        long wait = reserve();
+        if (wait == 0) return CompletableFuture.completedFuture(null);
+
+        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS));
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) return false;
+
+        tokens--;
+        return true;
+    }
+
+    // gives back a permit that wasn't used, like when another limiter rejected the request
+    public synchronized void refund() {
+        refill();
+        tokens = Math.min(burst, tokens + 1);
+    }
+
+    public synchronized double getAvailablePermits() {
+        refill();
+        return Math.max(0, tokens);
+    }
+
+    // returns the time to wait for the reserved permit; tokens go negative while callers are waiting
+    private synchronized long reserve() {
+        refill();
+        tokens--;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - updatedAt) * permitsPerNano);
+        updatedAt = now;
+    }
+
+    public enum Mode {
+        BLOCK,
+        REJECT
+    }
+}
@@ -0,0 +1,34 @@
+package com.ltonetwork.client.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RetryPolicy {
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("Max attempts should be at least 1");
+        if (initialBackoff.compareTo(maxBackoff) > 0)
+            throw new IllegalArgumentException("Initial backoff should not exceed max backoff");
+
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    // exponential backoff with full jitter: random between 0 and min(max, initial * 2^(attempt - 1))
+    public Duration backoff(int attempt) {
+        long ceiling = initialBackoff.toMillis() << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoff.toMillis()) ceiling = maxBackoff.toMillis();
+
+        return Duration.ofMillis(ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+}
@@ -0,0 +1,29 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.core.transaction.TransactionId;
+
+import java.util.Arrays;
+
+// Hashes and transaction ids shared by the anchor tests
+final class AnchorFixtures {
+    private AnchorFixtures() {
+    }
+
+    static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+
+    // distinct 32 byte document hashes for n up to 65535
+    static byte[] hash(int n) {
+        byte[] hash = new byte[32];
+        hash[0] = (byte) n;
+        hash[1] = (byte) (n >> 8);
+        return hash;
+    }
+
+    static TransactionId id(int n) {
+        return new TransactionId(bytes(32, n + 1));
+    }
+}
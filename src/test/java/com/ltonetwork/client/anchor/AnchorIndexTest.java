@@ -0,0 +1,136 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.TestUtil;
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.utils.Encoder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.ltonetwork.client.anchor.AnchorFixtures.bytes;
+import static com.ltonetwork.client.anchor.AnchorFixtures.hash;
+import static com.ltonetwork.client.anchor.AnchorFixtures.id;
+import static org.junit.Assert.*;
+
+public class AnchorIndexTest {
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            assertTrue(index.put(bytes(32, 1), id(2), 100, bytes(26, 3)));
+
+            AnchorIndex.Entry entry = index.get(bytes(32, 1));
+            assertNotNull(entry);
+            assertArrayEquals(bytes(32, 1), entry.getHash());
+            assertEquals(id(2), entry.getTransactionId());
+            assertEquals(100, entry.getHeight());
+            assertArrayEquals(bytes(26, 3), entry.getSenderBytes());
+
+            assertNull(index.get(bytes(32, 9)));
+            assertFalse(index.contains(bytes(31, 1)));
+        }
+    }
+
+    @Test
+    public void testFirstAnchorIsKept() {
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            assertTrue(index.put(bytes(32, 1), id(2), 100, bytes(26, 3)));
+            assertFalse(index.put(bytes(32, 1), id(4), 200, bytes(26, 5)));
+
+            assertEquals(1, index.size());
+            assertEquals(100, index.get(bytes(32, 1)).getHeight());
+        }
+    }
+
+    @Test
+    public void testGrowAndReopen() {
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            for (int i = 0; i < 100; i++) assertTrue(index.put(hash(i), id(i), i + 1, bytes(26, 3)));
+            assertEquals(100, index.size());
+        }
+
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            assertEquals(100, index.size());
+            for (int i = 0; i < 100; i++) assertEquals(i + 1, index.get(hash(i)).getHeight());
+            assertFalse(index.put(hash(42), id(1), 1, bytes(26, 3)));
+        }
+    }
+
+    @Test
+    public void testUnconfirmedIsSkipped() {
+        Anchor anchor = new Anchor(Encoder.base58Encode(hash(1)), Encoding.BASE58);
+        anchor.signWith(TestUtil.createAccount());
+
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            assertEquals(0, index.index(anchor));
+            assertFalse(index.contains(hash(1)));
+
+            // found in a block later
+            assertEquals(1, index.index(anchor, 10));
+            assertEquals(10, index.get(hash(1)).getHeight());
+        }
+    }
+
+    @Test
+    public void testPutWithoutHeight() {
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            expectedEx.expect(InvalidArgumentException.class);
+            index.put(hash(1), id(1), 0, bytes(26, 3));
+        }
+    }
+
+    @Test
+    public void testCountAfterCrash() throws IOException {
+        Path segment = directory.resolve("anchors-00000.idx");
+
+        AnchorIndex crashed = new AnchorIndex(directory, 16);
+        for (int i = 0; i < 10; i++) crashed.put(hash(i), id(i), i + 1, bytes(26, 3));
+        crashed.flush();
+
+        // the count in the header was behind; the segment wasn't closed, so its slots are counted on open
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 4), 16);
+        }
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            assertEquals(10, index.size());
+        }
+        crashed.close();
+
+        // closed cleanly, so the header is trusted
+        assertEquals(1, readByte(segment, 20));
+        try (AnchorIndex index = new AnchorIndex(directory, 16)) {
+            assertEquals(10, index.size());
+            assertEquals(0, readByte(segment, 20));
+        }
+    }
+
+    private static int readByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            return buffer.get(0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.utils.Encoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.ltonetwork.client.anchor.AnchorFixtures.hash;
+import static com.ltonetwork.client.anchor.AnchorFixtures.id;
+import static org.junit.Assert.*;
+
+public class AnchorVerifierTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private AnchorIndex index;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+        index = new AnchorIndex(directory, 1024);
+    }
+
+    @After
+    public void tearDown() {
+        index.close();
+    }
+
+    @Test
+    public void testVerify() {
+        index.put(hash(1), id(1), 10, new byte[26]);
+        index.put(hash(2), id(1), 10, new byte[26]);
+        index.put(hash(3), id(2), 11, new byte[26]);
+
+        Map<String, Integer> fetched = new ConcurrentHashMap<>();
+        try (AnchorVerifier verifier = new AnchorVerifier(id -> {
+            fetched.merge(id, 1, Integer::sum);
+            // the second transaction is known in the index, but not by the node
+            return id.equals(id(1).toString()) ? anchor(10, hash(1), hash(2)) : null;
+        }, index, 4)) {
+            List<AnchorVerifier.Result> results = verifier.verify(Arrays.asList(hash(1), hash(4), hash(2), hash(3)));
+
+            assertEquals(AnchorVerifier.Status.ANCHORED, results.get(0).getStatus());
+            assertEquals(10, results.get(0).getHeight());
+            assertEquals(1000, results.get(0).getTimestamp());
+            assertEquals(AnchorVerifier.Status.NOT_ANCHORED, results.get(1).getStatus());
+            assertNull(results.get(1).getTransaction());
+            assertTrue(results.get(2).isAnchored());
+            assertEquals(AnchorVerifier.Status.NOT_CONFIRMED, results.get(3).getStatus());
+
+            // one request per anchor transaction
+            assertEquals(Integer.valueOf(1), fetched.get(id(1).toString()));
+            assertEquals(2, fetched.size());
+        }
+    }
+
+    @Test
+    public void testFetchError() {
+        index.put(hash(1), id(1), 10, new byte[26]);
+        index.put(hash(2), id(2), 11, new byte[26]);
+        index.put(hash(3), id(2), 11, new byte[26]);
+
+        try (AnchorVerifier verifier = new AnchorVerifier(id -> {
+            if (id.equals(id(2).toString())) throw new HttpResponseException("Unavailable", 503, "");
+            return anchor(10, hash(1));
+        }, index, 2)) {
+            List<AnchorVerifier.Result> results = verifier.verify(Arrays.asList(hash(1), hash(2), hash(3)));
+
+            // the other results are kept
+            assertTrue(results.get(0).isAnchored());
+            assertEquals(AnchorVerifier.Status.ERROR, results.get(1).getStatus());
+            assertEquals(AnchorVerifier.Status.ERROR, results.get(2).getStatus());
+            assertTrue(results.get(2).getError() instanceof HttpResponseException);
+            assertNull(results.get(0).getError());
+        }
+    }
+
+    @Test
+    public void testUnconfirmedTransaction() {
+        index.put(hash(1), id(1), 10, new byte[26]);
+
+        try (AnchorVerifier verifier = new AnchorVerifier(id -> anchor(0, hash(1)), index, 1)) {
+            assertEquals(AnchorVerifier.Status.NOT_CONFIRMED, verifier.verify(hash(1)).getStatus());
+        }
+    }
+
+    @Test
+    public void testNotAnchoredSkipsNode() {
+        for (int i = 0; i < 100; i++) index.put(hash(i), id(i), i + 1, new byte[26]);
+
+        List<String> hashes = new ArrayList<>();
+        for (int i = 1000; i < 2000; i++) hashes.add(Encoder.base58Encode(hash(i)));
+
+        try (AnchorVerifier verifier = new AnchorVerifier(id -> {
+            throw new AssertionError("Unexpected request");
+        }, index, 1)) {
+            for (AnchorVerifier.Result result : verifier.verify(hashes, Encoding.BASE58))
+                assertEquals(AnchorVerifier.Status.NOT_ANCHORED, result.getStatus());
+        }
+    }
+
+    @Test
+    public void testBloomFilter() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) filter.put(hash(i));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) assertTrue(filter.mightContain(hash(i)));
+        for (int i = 1000; i < 11000; i++) if (filter.mightContain(hash(i))) falsePositives++;
+
+        assertTrue(falsePositives < 300);
+    }
+
+    private static Transaction anchor(int blockHeight, byte[]... hashes) {
+        Anchor anchor = new Anchor(Encoder.base58Encode(hashes[0]), Encoding.BASE58) {{
+            this.height = blockHeight;
+            this.timestamp = 1000;
+        }};
+        for (int i = 1; i < hashes.length; i++) anchor.addHash(Encoder.base58Encode(hashes[i]), Encoding.BASE58);
+        return anchor;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ltonetwork.client.anchor;
+
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.utils.Encoder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ltonetwork.client.anchor.AnchorFixtures.hash;
+import static org.junit.Assert.*;
+
+public class MerkleTreeTest {
+
+    @Test
+    public void testSingleDocument() {
+        MerkleTree tree = new MerkleTree(Collections.singletonList(hash(1)));
+
+        assertArrayEquals(MerkleTree.hashLeaf(hash(1)), tree.getRoot());
+        assertTrue(tree.getProof(0).getSiblings().isEmpty());
+        assertTrue(tree.getProof(0).verify(hash(1), tree.getRoot()));
+    }
+
+    @Test
+    public void testProofs() {
+        // odd sizes carry nodes without a sibling, large sizes are hashed in parallel
+        for (int size : new int[]{2, 3, 7, 8, 2049}) {
+            List<byte[]> documents = documents(size);
+            MerkleTree tree = new MerkleTree(documents);
+
+            for (int i = 0; i < size; i++) {
+                MerkleProof proof = tree.getProof(i);
+                assertTrue(proof.verify(documents.get(i), tree.getRoot()));
+                assertFalse(proof.verify(hash(size + 1), tree.getRoot()));
+            }
+        }
+    }
+
+    @Test
+    public void testRoot() {
+        byte[] a = MerkleTree.hashLeaf(hash(0));
+        byte[] b = MerkleTree.hashLeaf(hash(1));
+        byte[] c = MerkleTree.hashLeaf(hash(2));
+
+        assertArrayEquals(MerkleTree.hashNode(MerkleTree.hashNode(a, b), c), new MerkleTree(documents(3)).getRoot());
+    }
+
+    @Test
+    public void testBinary() {
+        MerkleTree tree = new MerkleTree(documents(10));
+        String binary = tree.getProof(5).toBinary(Encoding.BASE64);
+
+        MerkleProof proof = MerkleProof.fromBinary(binary, Encoding.BASE64);
+        assertEquals(4, proof.getSiblings().size());
+        assertTrue(proof.verify(hash(5), tree.getRoot()));
+    }
+
+    @Test
+    public void testAggregator() {
+        List<byte[]> roots = new ArrayList<>();
+        MerkleAggregator aggregator = new MerkleAggregator(root -> {
+            roots.add(root);
+            return new Anchor(Encoder.base58Encode(root), Encoding.BASE58);
+        });
+
+        for (int i = 0; i < 5; i++) assertEquals(i, aggregator.add(hash(i)).getIndex());
+        MerkleAggregator.Batch batch = aggregator.anchor();
+
+        assertEquals(0, aggregator.size());
+        assertEquals(1, roots.size());
+        assertArrayEquals(roots.get(0), batch.getRoot());
+        assertTrue(batch.getProof(3).verify(hash(3), (Anchor) batch.getTransaction()));
+        assertFalse(batch.getProof(3).verify(hash(4), (Anchor) batch.getTransaction()));
+    }
+
+    @Test
+    public void testAggregatorKeepsBatchOnFailure() {
+        AtomicInteger attempts = new AtomicInteger();
+        MerkleAggregator aggregator = new MerkleAggregator(root -> {
+            if (attempts.incrementAndGet() == 1) throw new HttpRequestException("Node is down", null);
+            return new Anchor(Encoder.base58Encode(root), Encoding.BASE58);
+        });
+
+        for (int i = 0; i < 5; i++) aggregator.add(hash(i));
+
+        try {
+            aggregator.anchor();
+            fail("Expected exception");
+        } catch (HttpRequestException e) {
+            assertEquals(5, aggregator.size());
+        }
+
+        MerkleAggregator.Document added = aggregator.add(hash(5));
+        assertEquals(5, added.getIndex());
+        MerkleAggregator.Batch batch = aggregator.anchor();
+
+        assertEquals(6, batch.size());
+        assertEquals(0, aggregator.size());
+        assertTrue(batch.getProof(3).verify(hash(3), (Anchor) batch.getTransaction()));
+        assertTrue(batch.getProof(added).verify(hash(5), (Anchor) batch.getTransaction()));
+    }
+
+    @Test
+    public void testAggregatorAddsWhileAnchoring() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<MerkleAggregator.Document> during = new ArrayList<>();
+        MerkleAggregator[] aggregator = new MerkleAggregator[1];
+
+        aggregator[0] = new MerkleAggregator(root -> {
+            during.add(aggregator[0].add(hash(10 + during.size())));
+            if (attempts.incrementAndGet() == 1) throw new HttpRequestException("Node is down", null);
+            return new Anchor(Encoder.base58Encode(root), Encoding.BASE58);
+        });
+
+        MerkleAggregator.Document first = aggregator[0].add(hash(0));
+        MerkleAggregator.Document second = aggregator[0].add(hash(1));
+
+        try {
+            aggregator[0].anchor();
+            fail("Expected exception");
+        } catch (HttpRequestException e) {
+            assertEquals(3, aggregator[0].size());
+        }
+
+        assertEquals(2, during.get(0).getIndex());
+        MerkleAggregator.Batch batch = aggregator[0].anchor();
+
+        assertEquals(3, batch.size());
+        assertEquals(1, aggregator[0].size());
+        assertTrue(batch.getProof(first).verify(hash(0), (Anchor) batch.getTransaction()));
+        assertTrue(batch.getProof(second).verify(hash(1), (Anchor) batch.getTransaction()));
+        assertTrue(batch.getProof(during.get(0)).verify(hash(10), (Anchor) batch.getTransaction()));
+        assertFalse(batch.contains(during.get(1)));
+    }
+
+    private static List<byte[]> documents(int count) {
+        List<byte[]> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) documents.add(hash(i));
+        return documents;
+    }
+}
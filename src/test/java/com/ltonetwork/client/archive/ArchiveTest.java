@@ -0,0 +1,299 @@
+package com.ltonetwork.client.archive;
+
+import com.ltonetwork.client.TestUtil;
+import com.ltonetwork.client.core.Account;
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.core.transaction.Association;
+import com.ltonetwork.client.core.transaction.CancelLease;
+import com.ltonetwork.client.core.transaction.CancelSponsor;
+import com.ltonetwork.client.core.transaction.Data;
+import com.ltonetwork.client.core.transaction.DataEntry;
+import com.ltonetwork.client.core.transaction.Lease;
+import com.ltonetwork.client.core.transaction.MassTransfer;
+import com.ltonetwork.client.core.transaction.Register;
+import com.ltonetwork.client.core.transaction.RevokeAssociation;
+import com.ltonetwork.client.core.transaction.SetScript;
+import com.ltonetwork.client.core.transaction.Sponsor;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.Transfer;
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.types.Address;
+import com.ltonetwork.client.types.Encoding;
+import com.ltonetwork.client.types.Key;
+import com.ltonetwork.client.types.PublicKey;
+import com.ltonetwork.client.utils.Encoder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ArchiveTest {
+    private static final String SENDER = "3N51gbw5W3xvSkcAXtLnXc3SQh2m9e6TBcy";
+    private static final String RECIPIENT = "3MsE8Jfjkh2zaZ1LCGqaDzB5nAYw5FXhfCx";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+        file = directory.resolve("transactions.archive");
+    }
+
+    @Test
+    public void testGet() {
+        write(file, true, 500);
+
+        try (ArchiveReader reader = new ArchiveReader(file)) {
+            assertEquals(500, reader.size());
+
+            for (int i : new int[]{0, 250, 499}) {
+                ArchiveRecord record = reader.get(id(i));
+                assertNotNull(record);
+                assertEquals(id(i), record.getId());
+                assertEquals(1000 + i, record.getTimestamp());
+                assertEquals(SENDER, record.getSender());
+                assertArrayEquals(binary(i), record.getBinary());
+                assertArrayEquals(new byte[64], record.getProofs().get(0));
+            }
+
+            assertNull(reader.get(id(500)));
+        }
+    }
+
+    @Test
+    public void testScanAndRange() {
+        write(file, true, 500);
+
+        try (ArchiveReader reader = new ArchiveReader(file)) {
+            int i = 0;
+            for (ArchiveRecord record : reader) assertEquals(id(i++), record.getId());
+            assertEquals(500, i);
+
+            List<ArchiveRecord> range = reader.getRange(1100, 1110);
+            assertEquals(10, range.size());
+            assertEquals(id(100), range.get(0).getId());
+            assertTrue(reader.getRange(0, 1000).isEmpty());
+        }
+    }
+
+    @Test
+    public void testCompression() throws IOException {
+        Path uncompressed = directory.resolve("uncompressed.archive");
+        write(file, true, 500);
+        write(uncompressed, false, 500);
+
+        assertTrue(Files.size(file) < Files.size(uncompressed) / 2);
+
+        try (ArchiveReader reader = new ArchiveReader(uncompressed)) {
+            assertArrayEquals(binary(42), reader.get(id(42)).getBinary());
+        }
+    }
+
+    @Test
+    public void testUnclosedArchive() throws IOException {
+        ArchiveWriter writer = new ArchiveWriter(file, true, 4096);
+        for (int i = 0; i < 200; i++) writer.append(record(i));
+        writer.flush();
+        long flushed = Files.size(file);
+        for (int i = 200; i < 300; i++) writer.append(record(i));
+        writer.flush();
+
+        // the process died while the last block was written
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(Files.size(file) - 10);
+        }
+
+        try (ArchiveReader reader = new ArchiveReader(file)) {
+            assertTrue(reader.size() >= 200 && reader.size() < 300);
+            assertNotNull(reader.get(id(199)));
+            assertNull(reader.get(id(299)));
+            assertTrue(flushed <= Files.size(file));
+        }
+    }
+
+    @Test
+    public void testDecodeTransfer() {
+        Account account = TestUtil.createAccount();
+        Transfer transfer = new Transfer(100, new Address(RECIPIENT));
+        transfer.setAttachment("test", Encoding.RAW);
+        transfer.signWith(account);
+
+        Map<String, Object> json = TransactionDecoder.decode(ArchiveRecord.of(transfer));
+
+        assertEquals((byte) 4, json.get("type"));
+        assertEquals((byte) 3, json.get("version"));
+        assertEquals(transfer.getId().toString(), json.get("id"));
+        assertEquals(SENDER, json.get("sender"));
+        assertEquals("FkU1XyfrCftc4pQKXCrrDyRLSnifX1SMvmx1CYiiyB3Y", json.get("senderPublicKey"));
+        assertEquals("ed25519", json.get("senderKeyType"));
+        assertEquals(transfer.getTimestamp(), json.get("timestamp"));
+        assertEquals(transfer.getFee(), json.get("fee"));
+        assertEquals(RECIPIENT, json.get("recipient"));
+        assertEquals(100L, json.get("amount"));
+        assertEquals(Encoder.base58Encode("test".getBytes()), json.get("attachment"));
+        assertEquals(1, ((List<?>) json.get("proofs")).size());
+    }
+
+    @Test
+    public void testDecodeAnchor() {
+        Account account = TestUtil.createAccount();
+
+        for (byte version : new byte[]{1, 3}) {
+            Anchor anchor = new Anchor("JAvfsDmnYCuPTRnyBeRB3UrCFBwgL4AtHmVYFd5YJqLa", Encoding.BASE58, version);
+            anchor.addHash("3zLWTHPNkmDsCRi2kZqFXFSBnTYykz13gHLezU4p6zmu", Encoding.BASE58);
+            anchor.signWith(account);
+
+            Map<String, Object> json = TransactionDecoder.decode(ArchiveRecord.of(anchor));
+
+            assertEquals(anchor.getTimestamp(), json.get("timestamp"));
+            assertEquals(anchor.getFee(), json.get("fee"));
+            assertEquals(Arrays.asList(anchor.getHashes(Encoding.BASE58)), json.get("anchors"));
+        }
+    }
+
+    @Test
+    public void testDecodeMassTransfer() {
+        MassTransfer massTransfer = new MassTransfer();
+        massTransfer.addTransfer(new Address(RECIPIENT), 10);
+        massTransfer.addTransfer(new Address(SENDER), 20);
+        massTransfer.signWith(TestUtil.createAccount());
+
+        Map<String, Object> json = TransactionDecoder.decode(ArchiveRecord.of(massTransfer));
+        List<?> transfers = (List<?>) json.get("transfers");
+
+        assertEquals(2, transfers.size());
+        assertEquals(RECIPIENT, ((Map<?, ?>) transfers.get(0)).get("recipient"));
+        assertEquals(20L, ((Map<?, ?>) transfers.get(1)).get("amount"));
+        assertEquals("", json.get("attachment"));
+    }
+
+    @Test
+    public void testDecodeData() {
+        Data data = new Data(new DataEntry[]{
+                new DataEntry<>(DataEntry.DataEntryType.INTEGER, "int", (long) 42),
+                new DataEntry<>(DataEntry.DataEntryType.BOOLEAN, "bool", true),
+                new DataEntry<>(DataEntry.DataEntryType.BINARY, "binary", new byte[]{1, -2}),
+                new DataEntry<>(DataEntry.DataEntryType.STRING, "string", "hello")
+        });
+        data.signWith(TestUtil.createAccount());
+
+        List<?> entries = (List<?>) TransactionDecoder.decode(ArchiveRecord.of(data)).get("data");
+
+        assertEquals(4, entries.size());
+        assertEquals(42L, ((Map<?, ?>) entries.get(0)).get("value"));
+        assertEquals(true, ((Map<?, ?>) entries.get(1)).get("value"));
+        assertEquals(Arrays.asList((byte) 1, (byte) -2), ((Map<?, ?>) entries.get(2)).get("value"));
+        assertEquals("string", ((Map<?, ?>) entries.get(3)).get("type"));
+        assertEquals("hello", ((Map<?, ?>) entries.get(3)).get("value"));
+    }
+
+    @Test
+    public void testDecodeAssociation() {
+        Association association = new Association(new Address(RECIPIENT), 1, "3zLWTHPNkmDsCRi2kZqFXFSBnTYykz13gHLezU4p6zmu", Encoding.BASE58);
+        association.signWith(TestUtil.createAccount());
+
+        Map<String, Object> json = TransactionDecoder.decode(ArchiveRecord.of(association));
+
+        assertEquals(RECIPIENT, json.get("party"));
+        assertEquals(1, json.get("associationType"));
+        assertEquals(0L, json.get("expires"));
+        assertEquals("3zLWTHPNkmDsCRi2kZqFXFSBnTYykz13gHLezU4p6zmu", json.get("hash"));
+    }
+
+    @Test
+    public void testRoundTripLease() {
+        for (byte version : new byte[]{2, 3}) assertRoundTrip(new Lease(100, new Address(RECIPIENT), version));
+    }
+
+    @Test
+    public void testRoundTripCancelLease() {
+        for (byte version : new byte[]{2, 3}) {
+            assertRoundTrip(new CancelLease("3zLWTHPNkmDsCRi2kZqFXFSBnTYykz13gHLezU4p6zmu", version));
+        }
+    }
+
+    @Test
+    public void testRoundTripSetScript() {
+        for (byte version : new byte[]{1, 3}) assertRoundTrip(new SetScript("base64:AQa3b8tH", version));
+    }
+
+    @Test
+    public void testRoundTripSponsor() {
+        for (byte version : new byte[]{1, 3}) assertRoundTrip(new Sponsor(new Address(RECIPIENT), version));
+    }
+
+    @Test
+    public void testRoundTripCancelSponsor() {
+        for (byte version : new byte[]{1, 3}) assertRoundTrip(new CancelSponsor(new Address(RECIPIENT), version));
+    }
+
+    @Test
+    public void testRoundTripRegister() {
+        Register register = new Register((byte) 3);
+        register.addAccount(new PublicKey("FkU1XyfrCftc4pQKXCrrDyRLSnifX1SMvmx1CYiiyB3Y", Encoding.BASE58));
+        register.addAccount(new PublicKey("0259d798aca3e80eb68ab974e0979e1863977ce3fd72238b9f99780b367fdd72f1", Encoding.HEX, Key.KeyType.SECP256K1));
+
+        assertRoundTrip(register);
+    }
+
+    @Test
+    public void testRoundTripRevokeAssociation() {
+        for (byte version : new byte[]{1, 3}) {
+            assertRoundTrip(new RevokeAssociation(new Address(RECIPIENT), 1, version));
+            assertRoundTrip(new RevokeAssociation(new Address(RECIPIENT), 1, "3zLWTHPNkmDsCRi2kZqFXFSBnTYykz13gHLezU4p6zmu", Encoding.BASE58, version));
+        }
+    }
+
+    // decodes the binary to the json of the node, builds the transaction from that and compares the binaries
+    private static void assertRoundTrip(Transaction transaction) {
+        transaction.signWith(TestUtil.createAccount());
+        ArchiveRecord record = ArchiveRecord.of(transaction);
+
+        ArchiveRecord decoded = ArchiveRecord.of(record.toTransaction());
+
+        assertEquals(record.getId(), decoded.getId());
+        assertEquals(record.getVersion(), decoded.getVersion());
+        assertArrayEquals(record.getBinary(), decoded.getBinary());
+        assertArrayEquals(record.getProofs().get(0), decoded.getProofs().get(0));
+    }
+
+    private static void write(Path file, boolean compress, int count) {
+        try (ArchiveWriter writer = new ArchiveWriter(file, compress, 4096)) {
+            for (int i = 0; i < count; i++) writer.append(record(i));
+        }
+    }
+
+    private static ArchiveRecord record(int n) {
+        return new ArchiveRecord(id(n), (byte) 15, (byte) 3, 1000 + n, Encoder.base58Decode(SENDER),
+                Collections.singletonList(new byte[64]), binary(n));
+    }
+
+    private static TransactionId id(int n) {
+        byte[] id = new byte[32];
+        ByteBuffer.wrap(id).putInt(n * 0x9e3779b9).putInt(n);
+        return new TransactionId(id);
+    }
+
+    // similar transactions, as an anchor service signs them
+    private static byte[] binary(int n) {
+        byte[] binary = new byte[120];
+        ByteBuffer.wrap(binary).put((byte) 15).put((byte) 3).put((byte) 'T').putLong(1000 + n).putInt(n);
+        return binary;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.TestUtil;
+
+import java.util.Random;
+
+// Not a unit test; run manually with `mvn test-compile exec:java -Dexec.classpathScope=test
+// -Dexec.mainClass=com.ltonetwork.client.core.AccountBenchmark`
+public class AccountBenchmark {
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    public static void main(String[] args) {
+        Account account = TestUtil.createAccount();
+        Account recipient = new AccountFactory(AccountFactory.testnetByte()).createFromSeed("benchmark");
+
+        // roughly the size of a single anchor transaction
+        byte[] message = new byte[85];
+        new Random(0).nextBytes(message);
+
+        report("sign", run(() -> account.sign(message)));
+        report("verify", run(() -> account.verify(account.sign(message), message)));
+        report("encrypt", run(() -> account.encrypt(recipient, "benchmark")));
+    }
+
+    private static long run(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) op.run();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) op.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("%-8s %10.0f ops/s per account%n", name, ITERATIONS / (nanos / 1e9));
+    }
+}
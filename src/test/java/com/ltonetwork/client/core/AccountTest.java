@@ -139,4 +139,48 @@ public class AccountTest {
 
         assertEquals("hello", new String(hello));
     }
+
+    @Test
+    public void testEncryptDecryptRepeated() {
+        Account account2 = new AccountFactory(AccountFactory.testnetByte()).createFromSeed("test");
+
+        byte[] first = account.encrypt(account2, "hello");
+        byte[] second = account.encrypt(account2, "world");
+
+        assertEquals("hello", new String(account2.decrypt(account, first)));
+        assertEquals("world", new String(account2.decrypt(account, second)));
+        assertEquals("hello", new String(account2.decrypt(account, first)));
+    }
+
+    @Test
+    public void testDecryptFromPublicAccount() {
+        Account account2 = new AccountFactory(AccountFactory.testnetByte()).createFromSeed("test");
+        Account publicAccount = new Account(null, new KeyPair(account.getPublicEncryptKey(), null), null);
+
+        byte[] ciphertext = account.encrypt(account2, "hello");
+
+        assertEquals("hello", new String(account2.decrypt(publicAccount, ciphertext)));
+    }
+
+    @Test
+    public void testSharedKeysAreBounded() {
+        KeyPair encrypt2 = new KeyPair(
+                new PublicKey("HBqhfdFASRQ5eBBpu2y6c6KKi1az6bMx8v1JxX4iW1Q8", Encoding.BASE58),
+                new PrivateKey("3kMEhU5z3v8bmer1ERFUUhW58Dtuhyo9hE5vrhjqAWYT", Encoding.BASE58)
+        );
+        Account account2 = new Account(null, encrypt2, null);
+        byte[] ciphertext = account.encrypt(account2, "hello");
+
+        for (int i = 0; i < Account.MAX_SHARED_KEYS + 10; i++) {
+            byte[] publicKey = new byte[32];
+            publicKey[0] = (byte) i;
+            publicKey[1] = (byte) (i >> 8);
+            account.encrypt(new Account(null, new KeyPair(new PublicKey(publicKey), null), null), "hello");
+        }
+        assertEquals(Account.MAX_SHARED_KEYS, account.sharedKeyCount());
+
+        account.clear();
+        assertEquals(0, account.sharedKeyCount());
+        assertEquals("hello", new String(account2.decrypt(account, ciphertext)));
+    }
 }
@@ -0,0 +1,81 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.CancelLease;
+import com.ltonetwork.client.core.transaction.Transaction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class AddressHistoryTest {
+
+    @Test
+    public void testPaging() {
+        List<String> cursors = Collections.synchronizedList(new ArrayList<>());
+
+        AddressHistory history = new AddressHistory(after -> {
+            cursors.add(after);
+            int start = after == null ? 0 : Integer.parseInt(after) + 1;
+            return page(start, Math.min(25, start + 10), 10);
+        }, 10);
+
+        assertEquals(25, history.stream().count());
+        assertEquals(3, cursors.size());
+        assertNull(cursors.get(0));
+        assertEquals("9", cursors.get(1));
+        assertEquals("19", cursors.get(2));
+    }
+
+    @Test
+    public void testLastPageFull() {
+        AddressHistory history = new AddressHistory(after -> after == null ? page(0, 10, 10) : page(10, 10, 10), 10);
+
+        List<Transaction> transactions = history.stream().collect(Collectors.toList());
+        assertEquals(10, transactions.size());
+        assertFalse(history.hasNext());
+    }
+
+    @Test
+    public void testPrefetch() throws InterruptedException {
+        List<String> cursors = Collections.synchronizedList(new ArrayList<>());
+
+        AddressHistory history = new AddressHistory(after -> {
+            cursors.add(after);
+            return page(0, 10, 10);
+        }, 10);
+
+        history.next();
+        Thread.sleep(50);
+
+        // the second page is requested while the first is consumed, but not the third
+        assertEquals(2, cursors.size());
+        history.close();
+    }
+
+    @Test
+    public void testError() {
+        AddressHistory history = new AddressHistory(after -> {
+            if (after != null) throw new IllegalStateException("node down");
+            return page(0, 10, 10);
+        }, 10);
+
+        try {
+            history.stream().count();
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("node down", e.getMessage());
+        }
+        assertFalse(history.hasNext());
+    }
+
+    private static AddressHistory.Page page(int from, int to, int pageSize) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = from; i < to; i++) transactions.add(new CancelLease(String.valueOf(i)));
+
+        return new AddressHistory.Page(transactions, to > from ? String.valueOf(to - 1) : null, to - from >= pageSize);
+    }
+}
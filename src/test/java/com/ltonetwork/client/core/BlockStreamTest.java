@@ -0,0 +1,81 @@
+package com.ltonetwork.client.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class BlockStreamTest {
+
+    @Test
+    public void testInOrder() {
+        // later pages complete first
+        BlockStream stream = new BlockStream((from, to) -> CompletableFuture.supplyAsync(
+                () -> blocks(from, to),
+                CompletableFuture.delayedExecutor(100 - from, TimeUnit.MILLISECONDS)
+        ), 1, 95, 10, 4);
+
+        List<Integer> heights = stream.stream().map(Block::getHeight).collect(Collectors.toList());
+
+        assertEquals(95, heights.size());
+        for (int i = 0; i < heights.size(); i++) assertEquals(i + 1, (int) heights.get(i));
+    }
+
+    @Test
+    public void testBoundedPrefetch() {
+        AtomicInteger requested = new AtomicInteger();
+        List<int[]> ranges = Collections.synchronizedList(new ArrayList<>());
+
+        BlockStream stream = new BlockStream((from, to) -> {
+            requested.incrementAndGet();
+            ranges.add(new int[]{from, to});
+            return CompletableFuture.completedFuture(blocks(from, to));
+        }, 1, 1000, 100, 3);
+
+        assertEquals(0, requested.get());
+
+        stream.next();
+        // the page being iterated plus 3 ahead
+        assertEquals(4, requested.get());
+        assertEquals(1, ranges.get(0)[0]);
+        assertEquals(100, ranges.get(0)[1]);
+        assertEquals(301, ranges.get(3)[0]);
+
+        stream.close();
+        assertFalse(stream.hasNext());
+    }
+
+    @Test
+    public void testError() {
+        BlockStream stream = new BlockStream((from, to) -> from > 10
+                ? CompletableFuture.failedFuture(new IllegalStateException("node down"))
+                : CompletableFuture.completedFuture(blocks(from, to)), 1, 20, 10, 2);
+
+        for (int i = 0; i < 10; i++) stream.next();
+
+        try {
+            stream.next();
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("node down", e.getMessage());
+        }
+
+        // the stream is closed after a failed page
+        assertFalse(stream.hasNext());
+    }
+
+    private static List<Block> blocks(int from, int to) {
+        List<Block> blocks = new ArrayList<>();
+        for (int height = from; height <= to; height++) {
+            blocks.add(new Block(height, (byte) 3, 0, null, "generator", "signature", new ArrayList<>(), new ArrayList<>()));
+        }
+        return blocks;
+    }
+}
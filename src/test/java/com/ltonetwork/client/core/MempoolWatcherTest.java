@@ -0,0 +1,75 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.CancelLease;
+import com.ltonetwork.client.core.transaction.Transaction;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MempoolWatcherTest {
+    MempoolWatcher watcher;
+    List<Transaction> added;
+    List<Transaction> removed;
+    AtomicInteger decoded;
+
+    @Before
+    public void init() {
+        watcher = new MempoolWatcher(new PublicNode(URI.create("https://node.example.com"), "secret"));
+        added = new ArrayList<>();
+        removed = new ArrayList<>();
+        decoded = new AtomicInteger();
+
+        watcher.subscribe((a, r) -> {
+            added.addAll(a);
+            removed.addAll(r);
+        });
+    }
+
+    @Test
+    public void testDiff() {
+        assertTrue(update("a", "b"));
+        assertEquals(2, added.size());
+        assertEquals(0, removed.size());
+        assertTrue(watcher.contains("a"));
+
+        added.clear();
+        assertTrue(update("b", "c"));
+        assertEquals(1, added.size());
+        assertEquals(1, removed.size());
+        assertFalse(watcher.contains("a"));
+        assertTrue(watcher.contains("c"));
+        assertEquals(2, watcher.getSnapshot().size());
+    }
+
+    @Test
+    public void testOnlyDecodesNewTransactions() {
+        update("a", "b");
+        update("a", "b", "c");
+
+        assertEquals(3, decoded.get());
+    }
+
+    @Test
+    public void testNoChange() {
+        update("a");
+        added.clear();
+
+        assertFalse(update("a"));
+        assertEquals(0, added.size());
+        assertEquals(0, removed.size());
+    }
+
+    private boolean update(String... ids) {
+        return watcher.update(Arrays.asList(ids), i -> {
+            decoded.incrementAndGet();
+            return new CancelLease(ids[i]);
+        });
+    }
+}
@@ -0,0 +1,198 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class OutboxTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void testReopen() {
+        try (Outbox outbox = new Outbox(directory)) {
+            for (int i = 0; i < 3; i++) assertTrue(outbox.add(id(i), json(i)));
+            assertFalse(outbox.add(id(0), json(0)));
+
+            outbox.markBroadcast(id(1));
+            outbox.markConfirmed(id(2));
+        }
+
+        try (Outbox outbox = new Outbox(directory)) {
+            assertEquals(Arrays.asList(id(0), id(1)), outbox.getUnfinished());
+            assertEquals(Outbox.State.PENDING, outbox.getState(id(0)));
+            assertEquals(Outbox.State.BROADCAST, outbox.getState(id(1)));
+            assertNull(outbox.getState(id(2)));
+        }
+    }
+
+    @Test
+    public void testTornRecord() throws IOException {
+        try (Outbox outbox = new Outbox(directory, 4096)) {
+            outbox.add(id(0), json(0));
+            outbox.add(id(1), json(1));
+        }
+
+        // the last byte of the second record didn't reach the disk
+        Path file = segmentFiles().get(0);
+        int end = 16 + 2 * (8 + 1 + 32 + json(0).length());
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(end - 1);
+            raf.write(0);
+        }
+
+        try (Outbox outbox = new Outbox(directory, 4096)) {
+            assertEquals(Arrays.asList(id(0)), outbox.getUnfinished());
+            outbox.add(id(2), json(2));
+        }
+
+        try (Outbox outbox = new Outbox(directory, 4096)) {
+            assertEquals(Arrays.asList(id(0), id(2)), outbox.getUnfinished());
+        }
+    }
+
+    @Test
+    public void testRecover() {
+        try (Outbox outbox = new Outbox(directory)) {
+            for (int i = 0; i < 4; i++) outbox.add(id(i), json(i));
+            outbox.markBroadcast(id(1));
+        }
+
+        List<String> broadcasts = new ArrayList<>();
+
+        try (Outbox outbox = new Outbox(directory)) {
+            Outbox.Report report = outbox.recover(json -> {
+                if (json.equals(json(2))) throw new HttpResponseException("invalid", 400, "");
+                if (json.equals(json(3))) throw new HttpResponseException("unavailable", 503, "");
+                broadcasts.add(json);
+            }, id -> id.equals(id(1)), id -> false);
+
+            assertEquals(1, report.getBroadcast());
+            assertEquals(1, report.getConfirmed());
+            assertEquals(1, report.getFailed());
+            assertEquals(1, report.getUnfinished());
+            assertEquals(Arrays.asList(json(0)), broadcasts);
+
+            assertEquals(Outbox.State.BROADCAST, outbox.getState(id(0)));
+            assertEquals(Arrays.asList(id(0), id(3)), outbox.getUnfinished());
+        }
+    }
+
+    @Test
+    public void testRecoverPooled() {
+        try (Outbox outbox = new Outbox(directory)) {
+            for (int i = 0; i < 3; i++) outbox.add(id(i), json(i));
+        }
+
+        List<String> broadcasts = new ArrayList<>();
+        Set<TransactionId> pool = new HashSet<>(Collections.singletonList(id(0)));
+
+        try (Outbox outbox = new Outbox(directory)) {
+            Outbox.Report report = outbox.recover(json -> {
+                // another client broadcast it while this one was down
+                if (json.equals(json(1))) {
+                    pool.add(id(1));
+                    throw new HttpResponseException("already in the pool", 400, "");
+                }
+                broadcasts.add(json);
+            }, id -> false, pool::contains);
+
+            assertEquals(1, report.getBroadcast());
+            assertEquals(2, report.getPooled());
+            assertEquals(0, report.getFailed());
+            assertEquals(Arrays.asList(json(2)), broadcasts);
+
+            assertEquals(Outbox.State.BROADCAST, outbox.getState(id(0)));
+            assertEquals(Outbox.State.BROADCAST, outbox.getState(id(1)));
+            assertEquals(Arrays.asList(id(0), id(1), id(2)), outbox.getUnfinished());
+        }
+    }
+
+    @Test
+    public void testFinishedSegmentsAreDeleted() throws IOException {
+        try (Outbox outbox = new Outbox(directory, 512)) {
+            for (int i = 0; i < 20; i++) outbox.add(id(i), json(i));
+            Path first = segmentFiles().get(0);
+            Path last = segmentFiles().get(segmentFiles().size() - 1);
+
+            for (int i = 0; i < 19; i++) outbox.markConfirmed(id(i));
+            assertEquals(1, outbox.size());
+            assertFalse(Files.exists(first));
+            // holds the unfinished transaction
+            assertTrue(Files.exists(last));
+        }
+
+        try (Outbox outbox = new Outbox(directory, 512)) {
+            assertEquals(Arrays.asList(id(19)), outbox.getUnfinished());
+        }
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try (Outbox outbox = new Outbox(directory, 64 * 1024)) {
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) outbox.add(id(thread * 100 + i), json(thread * 100 + i));
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+
+            assertEquals(800, outbox.size());
+        } finally {
+            executor.shutdown();
+        }
+
+        try (Outbox outbox = new Outbox(directory, 64 * 1024)) {
+            assertEquals(800, outbox.size());
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "outbox-*.log")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static TransactionId id(int n) {
+        return new TransactionId(ByteBuffer.allocate(32).putInt(n + 1).array());
+    }
+
+    private static String json(int n) {
+        return String.format("{\"type\":15,\"n\":%05d}", n);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PublicNodePoolTest {
+    PublicNode slow;
+    PublicNode fast;
+    PublicNodePool pool;
+
+    @Before
+    public void init() {
+        slow = new PublicNode(URI.create("https://slow.example.com"), "secret");
+        fast = new PublicNode(URI.create("https://fast.example.com"), "secret");
+        pool = new PublicNodePool(Arrays.asList(slow, fast));
+    }
+
+    @Test
+    public void testRoutesToFastestNode() {
+        pool.execute(node -> sleep(20));
+        pool.execute(node -> sleep(node == slow ? 20 : 1));
+
+        assertEquals(fast, pool.ranked().get(0));
+        assertEquals("done", pool.execute(node -> node == fast ? "done" : "wrong"));
+    }
+
+    @Test
+    public void testFailover() {
+        pool = new PublicNodePool(Arrays.asList(fast, slow));
+
+        String result = pool.execute(node -> {
+            if (node == fast) throw new HttpResponseException("Unavailable", 503, "");
+            return "slow";
+        });
+
+        assertEquals("slow", result);
+        assertFalse(pool.isHealthy(fast));
+        assertEquals(slow, pool.ranked().get(0));
+    }
+
+    @Test
+    public void testRejectedIsNotAFailure() {
+        pool = new PublicNodePool(Arrays.asList(fast, slow));
+
+        String result = pool.execute(node -> {
+            if (node == fast) throw new RejectedRequestException("Rate limit exceeded");
+            return "slow";
+        });
+
+        assertEquals("slow", result);
+        assertTrue(pool.isHealthy(fast));
+        assertEquals(fast, pool.ranked().get(0));
+    }
+
+    @Test
+    public void testAllNodesFail() {
+        try {
+            pool.execute(node -> {
+                throw new HttpRequestException(node.getUri().getHost() + " is down", null);
+            });
+            fail("Expected exception");
+        } catch (HttpRequestException e) {
+            assertEquals(1, e.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void testNoFailoverOnClientException() {
+        try {
+            pool.execute(node -> {
+                throw new InvalidArgumentException("Unknown transaction type");
+            });
+            fail("Expected exception");
+        } catch (InvalidArgumentException e) {
+            assertEquals(0, e.getSuppressed().length);
+        }
+
+        assertTrue(pool.isHealthy(slow));
+        assertTrue(pool.isHealthy(fast));
+    }
+
+    @Test
+    public void testNoFailoverOnClientError() {
+        try {
+            pool.execute(node -> {
+                throw new HttpResponseException("Not found", 404, "");
+            });
+            fail("Expected exception");
+        } catch (HttpResponseException e) {
+            assertEquals(0, e.getSuppressed().length);
+        }
+
+        assertTrue(pool.isHealthy(slow));
+        assertTrue(pool.isHealthy(fast));
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return "done";
+    }
+}
@@ -1,11 +1,34 @@
 package com.ltonetwork.client.core;
 
+import com.ltonetwork.client.core.transaction.CompiledScript;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+import com.ltonetwork.client.metrics.Metrics;
+import com.ltonetwork.client.metrics.MetricsRegistry;
+import com.ltonetwork.client.types.JsonObject;
+import com.ltonetwork.client.utils.CircuitBreaker;
+import com.ltonetwork.client.utils.ConcurrencyLimiter;
+import com.ltonetwork.client.utils.RateLimiter;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class PublicNodeTest {
     PublicNode pb;
@@ -26,4 +49,141 @@ public class PublicNodeTest {
     public void testGetApiKey() {
         assertEquals("secret", pb.getApiKey());
     }
+
+    @Test
+    public void testCompile() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/utils/script/compile", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{\"script\":\"base64:AQa3b8tH\",\"complexity\":1,\"extraFee\":400000}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        try {
+            PublicNode node = new PublicNode(URI.create("http://127.0.0.1:" + server.getAddress().getPort()), "secret");
+            node.setScriptCache(new ScriptCache());
+
+            CompiledScript compiled = node.compile("match tx {\n  case _ => true\n}");
+            assertEquals("base64:AQa3b8tH", compiled.getScript());
+            assertEquals(1, compiled.getComplexity());
+            assertEquals(400000, compiled.getExtraFee());
+
+            assertSame(compiled, node.compile("match tx {\n  case _ => true\n}"));
+            assertEquals(1, requests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testCustomPathsShareMetricsLabel() {
+        // nothing listens on port 1
+        PublicNode node = new PublicNode(URI.create("http://127.0.0.1:1"), "secret");
+        List<String> endpoints = Collections.synchronizedList(new ArrayList<>());
+        MetricsRegistry.set(new Metrics() {
+            @Override
+            public void recordRequest(String method, String endpoint, int statusCode, long nanos) {
+                endpoints.add(method + " " + endpoint);
+            }
+        });
+
+        try {
+            for (String path : Arrays.asList("/addresses/balance/3MsE8Jfjkh2zaZ1LCGqaDzB5nAYw5FXhfCx", "/addresses/balance/3N51gbw5W3xvSkcAXtLnXc3SQh2m9e6TBcy")) {
+                try {
+                    node.get(path);
+                    fail("Expected exception");
+                } catch (HttpRequestException e) {
+                    // no node
+                }
+            }
+        } finally {
+            MetricsRegistry.set(null);
+        }
+
+        assertEquals(Arrays.asList("GET custom", "GET custom"), endpoints);
+    }
+
+    @Test
+    public void testLimiterRejectionKeepsBreakerHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, Duration.ofMillis(20));
+        breaker.record(false);
+        Thread.sleep(40);
+
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0.5, 2);
+        limiter.acquire();
+
+        pb.setCircuitBreaker(breaker);
+        pb.setConcurrencyLimiter(limiter);
+
+        try {
+            pb.get("/blocks/height");
+            fail("Expected exception");
+        } catch (RejectedRequestException e) {
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        }
+
+        // the trial slot is free again
+        breaker.acquire();
+    }
+
+    @Test
+    public void testEndpointRejectRefundsNodePermit() {
+        pb.setRateLimiter(new RateLimiter(1, 1, RateLimiter.Mode.REJECT));
+        pb.setRateLimiter(PublicNode.EndpointClass.READ, new RateLimiter(1, 1, RateLimiter.Mode.REJECT));
+        pb.getRateLimiter(PublicNode.EndpointClass.READ).permit();
+
+        try {
+            pb.get("/blocks/height");
+            fail("Expected exception");
+        } catch (RejectedRequestException e) {
+            assertTrue(pb.getRateLimiter().getAvailablePermits() >= 1);
+        }
+
+        CompletableFuture<JsonObject> future = pb.getAsync("/blocks/height");
+        assertTrue(future.isCompletedExceptionally());
+        assertTrue(pb.getRateLimiter().getAvailablePermits() >= 1);
+    }
+
+    @Test
+    public void testAsyncRejectFailsRightAway() {
+        pb.setRateLimiter(PublicNode.EndpointClass.READ, new RateLimiter(1, 1, RateLimiter.Mode.REJECT));
+        pb.getRateLimiter(PublicNode.EndpointClass.READ).permit();
+
+        CompletableFuture<JsonObject> future = pb.getAsync("/blocks/height");
+
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.join();
+            fail("Expected exception");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof RejectedRequestException);
+        }
+    }
+
+    @Test
+    public void testAsyncRunsOnExecutor() {
+        // nothing listens on port 1
+        PublicNode node = new PublicNode(URI.create("http://127.0.0.1:1"), "secret");
+        AtomicInteger tasks = new AtomicInteger();
+        node.setAsyncExecutor(task -> {
+            tasks.incrementAndGet();
+            new Thread(task).start();
+        });
+
+        CompletableFuture<Transaction> future = node.getTransactionAsync("A2FVYUsANokajypcNKSLD4poHYK4uNdYrror5dfv7hFY");
+
+        try {
+            future.join();
+            fail("Expected exception");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof HttpRequestException);
+        }
+        assertEquals(1, tasks.get());
+    }
 }
@@ -0,0 +1,63 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.CompiledScript;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class ScriptCacheTest {
+    private static final String SCRIPT = "match tx {\n  case _ => true\n}";
+    private static final CompiledScript COMPILED = new CompiledScript("base64:AQa3b8tH", 1, 400000);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void testGet() {
+        ScriptCache cache = new ScriptCache();
+        cache.put(SCRIPT, COMPILED);
+
+        assertSame(COMPILED, cache.get(SCRIPT));
+        assertNull(cache.get(SCRIPT + " "));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testKey() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ScriptCache.key(""));
+        assertEquals(ScriptCache.key(SCRIPT), ScriptCache.key(new String(SCRIPT.toCharArray())));
+    }
+
+    @Test
+    public void testDirectory() {
+        new ScriptCache(directory).put(SCRIPT, COMPILED);
+        assertTrue(Files.exists(directory.resolve(ScriptCache.key(SCRIPT) + ".json")));
+
+        ScriptCache cache = new ScriptCache(directory);
+        assertEquals(0, cache.size());
+        assertTrue(cache.contains(SCRIPT));
+        CompiledScript compiled = cache.get(SCRIPT);
+        assertEquals("base64:AQa3b8tH", compiled.getScript());
+        assertEquals(1, compiled.getComplexity());
+        assertEquals(400000, compiled.getExtraFee());
+        assertEquals(1, cache.size());
+
+        cache.invalidateAll();
+        assertFalse(cache.contains(SCRIPT));
+        assertNull(new ScriptCache(directory).get(SCRIPT));
+    }
+}
@@ -0,0 +1,131 @@
+package com.ltonetwork.client.core;
+
+import com.ltonetwork.client.core.transaction.Anchor;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import com.ltonetwork.client.types.Encoding;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TransactionBatcherTest {
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private Transaction build(List<String> hashes) {
+        batches.add(hashes);
+        Anchor anchor = new Anchor(hashes.get(0), Encoding.BASE58);
+        for (int i = 1; i < hashes.size(); i++) anchor.addHash(hashes.get(i), Encoding.BASE58);
+        return anchor;
+    }
+
+    @Test
+    public void testFlushWhenFull() throws Exception {
+        try (TransactionBatcher<String> batcher = new TransactionBatcher<>(this::build, tx -> tx, 3, Duration.ofHours(1), 1)) {
+            List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+            for (int i = 1; i <= 7; i++) futures.add(batcher.submit(hash(i)));
+
+            futures.get(5).get(1, TimeUnit.SECONDS);
+            assertEquals(2, batches.size());
+            assertEquals(1, batcher.pending());
+            assertSame(futures.get(0).get(), futures.get(2).get());
+            assertNotSame(futures.get(2).get(), futures.get(3).get());
+            assertFalse(futures.get(6).isDone());
+        }
+    }
+
+    @Test
+    public void testFlushAfterDelay() throws Exception {
+        try (TransactionBatcher<String> batcher = new TransactionBatcher<>(this::build, tx -> tx, 100, Duration.ofMillis(50), 1)) {
+            CompletableFuture<Transaction> a = batcher.submit(hash(1));
+            CompletableFuture<Transaction> b = batcher.submit(hash(2));
+
+            Anchor anchor = (Anchor) b.get(1, TimeUnit.SECONDS);
+            assertSame(anchor, a.get());
+            assertEquals(2, anchor.getHashes(Encoding.BASE58).length);
+        }
+    }
+
+    @Test
+    public void testFlushOnBytes() throws Exception {
+        try (TransactionBatcher<String> batcher = new TransactionBatcher<>(this::build, tx -> tx, 100, String::length, 100, Duration.ofHours(1), 1)) {
+            List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) futures.add(batcher.submit(hash(i)));
+
+            futures.get(3).get(1, TimeUnit.SECONDS);
+            assertEquals(2, batches.size());
+            assertEquals(2, batches.get(0).size());
+            assertEquals(1, batcher.pending());
+        }
+    }
+
+    @Test
+    public void testItemTooLarge() {
+        try (TransactionBatcher<String> batcher = new TransactionBatcher<>(this::build, tx -> tx, 100, String::length, 10, Duration.ofHours(1), 1)) {
+            batcher.submit(hash(1));
+            fail("Expected exception");
+        } catch (InvalidArgumentException e) {
+            assertEquals(0, batches.size());
+        }
+    }
+
+    @Test
+    public void testStaleDeadlineIsIgnored() throws Exception {
+        try (TransactionBatcher<String> batcher = new TransactionBatcher<>(this::build, tx -> tx, 100, Duration.ofMillis(200), 1)) {
+            CompletableFuture<Transaction> a = batcher.submit(hash(1));
+            CompletableFuture<Transaction> b;
+
+            synchronized (batcher) {
+                // the deadline of the first batch fires and waits for the lock
+                Thread.sleep(300);
+                batcher.flush();
+                b = batcher.submit(hash(2));
+            }
+
+            a.get(1, TimeUnit.SECONDS);
+            Thread.sleep(50);
+            assertFalse(b.isDone());
+            assertEquals(1, batcher.pending());
+
+            b.get(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCloseFlushes() throws Exception {
+        TransactionBatcher<String> batcher = new TransactionBatcher<>(this::build, tx -> tx, 100, Duration.ofHours(1), 1);
+        CompletableFuture<Transaction> future = batcher.submit(hash(1));
+        batcher.close();
+
+        assertNotNull(future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        try (TransactionBatcher<String> batcher = new TransactionBatcher<>(this::build, tx -> {
+            throw new IllegalStateException("broadcast failed");
+        }, 2, Duration.ofHours(1), 1)) {
+            CompletableFuture<Transaction> a = batcher.submit(hash(1));
+            CompletableFuture<Transaction> b = batcher.submit(hash(2));
+
+            try {
+                b.get(1, TimeUnit.SECONDS);
+                fail("Expected the broadcast to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            assertTrue(a.isCompletedExceptionally());
+        }
+    }
+
+    private static String hash(int n) {
+        return "JAvfsDmnYCuPTRnyBeRB3UrCFBwgL4AtHmVYFd5YJqL" + (char) ('a' + n);
+    }
+}
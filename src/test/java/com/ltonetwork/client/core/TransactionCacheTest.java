@@ -0,0 +1,76 @@
+package com.ltonetwork.client.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TransactionCacheTest {
+
+    @Test
+    public void testGet() {
+        TransactionCache cache = new TransactionCache(10);
+        cache.put("a", "{}");
+
+        assertEquals("{}", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        TransactionCache cache = new TransactionCache(2);
+        cache.put("a", "{}");
+        cache.put("b", "{}");
+        cache.get("a");
+        cache.put("c", "{}");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+    }
+
+    @Test
+    public void testMaximumWeight() {
+        TransactionCache cache = new TransactionCache(10, 10);
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        cache.put("c", "1234");
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getWeight());
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testTooHeavy() {
+        TransactionCache cache = new TransactionCache(10, 3);
+        cache.put("a", "1234");
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testFifo() {
+        TransactionCache cache = new TransactionCache(2, Long.MAX_VALUE, TransactionCache.Eviction.FIFO);
+        cache.put("a", "{}");
+        cache.put("b", "{}");
+        cache.get("a");
+        cache.put("c", "{}");
+
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        TransactionCache cache = new TransactionCache(10);
+        cache.put("a", "1234");
+        cache.invalidate("a");
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+}
@@ -3,6 +3,7 @@ package com.ltonetwork.client.core.transaction;
 import com.ltonetwork.client.TestUtil;
 import com.ltonetwork.client.core.Account;
 import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.metrics.TransactionTimeline;
 import com.ltonetwork.client.types.Encoding;
 import com.ltonetwork.client.types.JsonObject;
 import org.junit.Before;
@@ -10,7 +11,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 
 public class AnchorTest {
@@ -92,4 +93,66 @@ public class AnchorTest {
         Anchor jsonTx = new Anchor(json);
         assertEquals(85, jsonTx.toBinary().length);
     }
+
+    // expected ids are the Blake2b-256 of the binary, calculated with another implementation
+    @Test
+    public void testGetIdAfterSignV1() {
+        Anchor anchor = new Anchor("3zLWTHPNkmDsCRi2kZqFXFSBnTYykz13gHLezU4p6zmu", Encoding.BASE58, (byte) 1);
+        anchor.setTimestamp(1609459200000L);
+        anchor.signWith(TestUtil.createAccount());
+
+        assertEquals("GxYXVT7V94FM7LJd8h65fDCnKdxKwaRqCdk7EvSc5Uyi", anchor.getId().toString());
+        assertEquals(anchor.getId(), anchor.calculateId());
+    }
+
+    @Test
+    public void testGetIdAfterSignV3() {
+        Anchor anchor = new Anchor("3zLWTHPNkmDsCRi2kZqFXFSBnTYykz13gHLezU4p6zmu", Encoding.BASE58, (byte) 3);
+        anchor.setTimestamp(1609459200000L);
+        anchor.signWith(TestUtil.createAccount());
+
+        assertEquals("AbzwBTMwVXoAvXizrLhMAqgdaoNQtRujfGX5C1sDNeJL", anchor.getId().toString());
+        assertEquals(anchor.getId(), anchor.calculateId());
+    }
+
+    @Test
+    public void testTimelineOnlyForLocalTransactions() {
+        assertTrue(tx.getTimeline().has(TransactionTimeline.Stage.BUILD));
+
+        JsonObject json = new JsonObject(
+                "{\n" +
+                        "  \"type\": 15,\n" +
+                        "  \"sender\": \"3N51gbw5W3xvSkcAXtLnXc3SQh2m9e6TBcy\",\n" +
+                        "  \"senderPublicKey\": \"8wFR3b8WnbFaxQEdRnogTqC5doYUrotm3P7upvxPaWUo\",\n" +
+                        "  \"fee\": 100000,\n" +
+                        "  \"timestamp\": 1538728794530,\n" +
+                        "  \"version\": 3,\n" +
+                        "  \"anchors\": [\"3Z7yhiFYtYVXHkLXMKLkzkCqYxnRmdMRcutGYba7\"]\n" +
+                        "}", false);
+
+        Anchor jsonTx = new Anchor(json);
+        jsonTx.toBinary();
+        assertNull(jsonTx.getTimeline());
+
+        jsonTx.signWith(TestUtil.createAccount());
+        assertTrue(jsonTx.getTimeline().has(TransactionTimeline.Stage.SIGN));
+        assertFalse(jsonTx.getTimeline().has(TransactionTimeline.Stage.BUILD));
+    }
+
+    @Test
+    public void testCalculateId() {
+        JsonObject json = new JsonObject(
+                "{\n" +
+                        "  \"type\": 15,\n" +
+                        "  \"sender\": \"3N51gbw5W3xvSkcAXtLnXc3SQh2m9e6TBcy\",\n" +
+                        "  \"senderPublicKey\": \"8wFR3b8WnbFaxQEdRnogTqC5doYUrotm3P7upvxPaWUo\",\n" +
+                        "  \"fee\": 100000,\n" +
+                        "  \"timestamp\": 1538728794530,\n" +
+                        "  \"version\": 3,\n" +
+                        "  \"anchors\": [\"3Z7yhiFYtYVXHkLXMKLkzkCqYxnRmdMRcutGYba7\"]\n" +
+                        "}", false);
+
+        Anchor jsonTx = new Anchor(json);
+        assertEquals("A2FVYUsANokajypcNKSLD4poHYK4uNdYrror5dfv7hFY", jsonTx.calculateId().toString());
+    }
 }
@@ -0,0 +1,71 @@
+package com.ltonetwork.client.core.transaction;
+
+import com.ltonetwork.client.types.Address;
+import com.ltonetwork.client.types.Encoding;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FeeCalculatorTest {
+
+    @After
+    public void tearDown() {
+        FeeCalculator.setDefault(null);
+    }
+
+    @Test
+    public void testDefaultFees() {
+        MassTransfer massTransfer = new MassTransfer();
+        for (int i = 0; i < 3; i++) massTransfer.addTransfer(new Address("3MsE8Jfjkh2zaZ1LCGqaDzB5nAYw5FXhfCx"), 10);
+
+        assertEquals(130_000_000, massTransfer.getFee());
+        assertEquals(35_000_000, new Anchor("JAvfsDmnYCuPTRnyBeRB3UrCFBwgL4AtHmVYFd5YJqLa", Encoding.BASE58).getFee());
+        assertEquals(500_000_000, new SetScript((String) null).getFee());
+        assertEquals(100_000_000, new CancelLease("B22YzYdNv7DCqMqdK2ckpt53gQuYq2v997N7g8agZoHo").getFee());
+    }
+
+    @Test
+    public void testDataFee() {
+        DataEntry<?>[] entries = {
+                new DataEntry<>(DataEntry.DataEntryType.INTEGER, "int", (long) 42),
+                new DataEntry<>(DataEntry.DataEntryType.BOOLEAN, "bool", true),
+                new DataEntry<>(DataEntry.DataEntryType.BINARY, "binary", new byte[300 * 1024]),
+                new DataEntry<>(DataEntry.DataEntryType.STRING, "string", "hello")
+        };
+
+        int size = 0;
+        for (DataEntry<?> entry : entries) {
+            assertEquals(entry.toBinary().length, entry.binarySize());
+            size += entry.binarySize();
+        }
+
+        assertEquals(size, new Data(entries).dataSize());
+        assertEquals(100_000_000 + 2 * 10_000_000, new Data(entries).getFee());
+        assertEquals(100_000_000, new Data(new DataEntry[0]).getFee());
+    }
+
+    @Test
+    public void testCustomTable() {
+        FeeCalculator calculator = new FeeCalculator();
+        calculator.setBaseFee((byte) 15, 25_000_000);
+        calculator.setItemFee((byte) 15, 10_000_000);
+        FeeCalculator.setDefault(calculator);
+
+        Anchor anchor = new Anchor("JAvfsDmnYCuPTRnyBeRB3UrCFBwgL4AtHmVYFd5YJqLa", Encoding.BASE58);
+        anchor.addHash("JAvfsDmnYCuPTRnyBeRB3UrCFBwgL4AtHmVYFd5YJqLb", Encoding.BASE58);
+
+        assertEquals(45_000_000, anchor.getFee());
+        assertEquals(calculator.calculate(anchor), calculator.calculate((byte) 15, 2, 0));
+    }
+
+    @Test
+    public void testMaxItems() {
+        FeeCalculator calculator = new FeeCalculator();
+
+        assertEquals(0, calculator.maxItems((byte) 11, 50_000_000));
+        assertEquals(0, calculator.maxItems((byte) 11, 100_000_000));
+        assertEquals(15, calculator.maxItems((byte) 11, 255_000_000));
+        assertEquals(Integer.MAX_VALUE, calculator.maxItems((byte) 15, 35_000_000));
+    }
+}
@@ -63,6 +63,16 @@ public class SetScriptTest {
         tx.getComplexity();
     }
 
+    @Test
+    public void testCreateWithCompiledScript() {
+        SetScript compiledTx = new SetScript(new CompiledScript("base64:AQa3b8tH", 1, 400000));
+        compiledTx.signWith(TestUtil.createAccount());
+
+        assertEquals(60, compiledTx.toBinary().length);
+        assertEquals(1, compiledTx.getComplexity());
+        assertEquals(FeeCalculator.getDefault().getBaseFee((byte) 13) + 400000, compiledTx.getEstimatedFee());
+    }
+
     @Test
     public void testCreateWithJson() {
         SetScript jsonTx = createFromJson();
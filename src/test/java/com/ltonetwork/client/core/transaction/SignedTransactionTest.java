@@ -0,0 +1,79 @@
+package com.ltonetwork.client.core.transaction;
+
+import com.ltonetwork.client.TestUtil;
+import com.ltonetwork.client.core.Account;
+import com.ltonetwork.client.core.AccountFactory;
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.types.Address;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+
+public class SignedTransactionTest {
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+    Account account;
+    MassTransfer tx;
+
+    @Before
+    public void init() {
+        account = TestUtil.createAccount();
+        tx = new MassTransfer();
+        tx.addTransfer(new Address("3MwGRJ1cbCQgP3mSGMR6pR1EJzXAD3e6Bvu"), 1);
+    }
+
+    @Test
+    public void testToSigned() {
+        tx.signWith(account);
+        SignedTransaction signed = tx.toSigned();
+
+        assertEquals(tx.getId(), signed.getId());
+        assertEquals(1, signed.getProofs().size());
+        assertArrayEquals(tx.toBinary(), signed.toBinary());
+        assertEquals(tx.toBinary().length, signed.getBinary().remaining());
+    }
+
+    @Test
+    public void testVerify() {
+        tx.signWith(account);
+
+        assertTrue(tx.toSigned().verify());
+        assertTrue(tx.toSigned().verify(account.getPublicSignKey()));
+    }
+
+    @Test
+    public void testVerifySponsor() {
+        Account sponsor = new AccountFactory(AccountFactory.testnetByte()).createFromSeed("sponsor");
+        tx.signWith(account);
+        tx.sponsorWith(sponsor);
+
+        SignedTransaction signed = tx.toSigned();
+        assertEquals(2, signed.getProofs().size());
+        assertTrue(signed.verify(sponsor.getPublicSignKey()));
+    }
+
+    @Test
+    public void testUnaffectedByChanges() {
+        tx.signWith(account);
+        SignedTransaction signed = tx.toSigned();
+        int length = signed.toBinary().length;
+
+        tx.addTransfer(new Address("3MwGRJ1cbCQgP3mSGMR6pR1EJzXAD3e6Bvu"), 1);
+
+        assertEquals(length, signed.toBinary().length);
+        assertEquals(length + 26 + 8, tx.toBinary().length);
+        assertTrue(signed.verify());
+        assertNull(tx.getId());
+    }
+
+    @Test
+    public void testToSignedFail() {
+        expectedEx.expect(BadMethodCallException.class);
+        expectedEx.expectMessage("Transaction is not signed");
+
+        tx.toSigned();
+    }
+}
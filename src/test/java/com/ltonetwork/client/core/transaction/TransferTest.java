@@ -127,4 +127,23 @@ public class TransferTest {
 
         tx.sponsorWith(sponsor);
     }
+
+    // expected ids are the Blake2b-256 of the binary, calculated with another implementation
+    @Test
+    public void testGetIdAfterSignV2() {
+        Transfer transfer = new Transfer(100000000, new Address("3MsE8Jfjkh2zaZ1LCGqaDzB5nAYw5FXhfCx"), (byte) 2);
+        transfer.setTimestamp(1609459200000L);
+        transfer.signWith(TestUtil.createAccount());
+
+        assertEquals("FVpeidLqYdG8DjMCEiLtbrakwHEhaG24PzLhzQ99fgY", transfer.getId().toString());
+    }
+
+    @Test
+    public void testGetIdAfterSignV3() {
+        Transfer transfer = new Transfer(100000000, new Address("3MsE8Jfjkh2zaZ1LCGqaDzB5nAYw5FXhfCx"), (byte) 3);
+        transfer.setTimestamp(1609459200000L);
+        transfer.signWith(TestUtil.createAccount());
+
+        assertEquals("7D9FmHc1JgwhMG99Myd9eGWGpoe9XzUP1oUrvh6wXo9V", transfer.getId().toString());
+    }
 }
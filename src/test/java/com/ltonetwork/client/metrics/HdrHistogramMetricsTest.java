@@ -0,0 +1,66 @@
+package com.ltonetwork.client.metrics;
+
+import com.ltonetwork.client.types.Key;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HdrHistogramMetricsTest {
+
+    @After
+    public void tearDown() {
+        MetricsRegistry.set(null);
+    }
+
+    @Test
+    public void testSnapshot() {
+        HdrHistogramMetrics metrics = new HdrHistogramMetrics();
+
+        metrics.recordRequest("GET", "/transactions/info", 200, 1_000_000);
+        metrics.recordRequest("GET", "/transactions/info", 200, 3_000_000);
+        metrics.recordSign(Key.KeyType.ED25519, 50_000);
+        metrics.recordToBinary((byte) 15, 120, 2_000);
+
+        Map<String, HistogramSnapshot> snapshot = metrics.snapshot();
+        assertEquals(4, snapshot.size());
+
+        HistogramSnapshot http = snapshot.get("http GET /transactions/info 200");
+        assertEquals(2, http.getCount());
+        assertEquals(1_000_000, http.getMin(), 10_000);
+        assertEquals(3_000_000, http.getMax(), 30_000);
+
+        assertEquals(1, metrics.snapshot("sign ED25519").getCount());
+        assertEquals(120, metrics.snapshot("toBinary.size 15").getMax());
+        assertNull(metrics.snapshot("verify ED25519"));
+    }
+
+    @Test
+    public void testReset() {
+        HdrHistogramMetrics metrics = new HdrHistogramMetrics();
+        metrics.recordJsonParse(100, 5_000);
+        metrics.reset();
+
+        assertEquals(0, metrics.snapshot("json.parse").getCount());
+    }
+
+    @Test
+    public void testRegistry() {
+        assertFalse(MetricsRegistry.isEnabled());
+        assertSame(Metrics.NOOP, MetricsRegistry.get());
+
+        HdrHistogramMetrics metrics = new HdrHistogramMetrics();
+        MetricsRegistry.set(metrics);
+        assertTrue(MetricsRegistry.isEnabled());
+        assertSame(metrics, MetricsRegistry.get());
+
+        MetricsRegistry.set(null);
+        assertFalse(MetricsRegistry.isEnabled());
+    }
+}
@@ -0,0 +1,58 @@
+package com.ltonetwork.client.metrics;
+
+import com.ltonetwork.client.metrics.TransactionTimeline.Stage;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TransactionTimelineTest {
+
+    @Test
+    public void testDurations() throws InterruptedException {
+        TransactionTimeline timeline = new TransactionTimeline();
+        Thread.sleep(5);
+        timeline.record(Stage.TO_BINARY);
+        timeline.record(Stage.SIGN);
+        Thread.sleep(5);
+        timeline.record(Stage.ACK);
+
+        Map<Stage, Duration> durations = timeline.durations();
+        assertEquals(3, durations.size());
+        assertTrue(durations.get(Stage.TO_BINARY).toMillis() >= 5);
+        assertTrue(durations.get(Stage.ACK).toMillis() >= 5);
+        assertFalse(durations.containsKey(Stage.HTTP_SEND));
+        assertNull(timeline.between(Stage.BUILD, Stage.CONFIRMED));
+    }
+
+    @Test
+    public void testConfirmedOnce() {
+        TransactionTimeline timeline = new TransactionTimeline();
+        timeline.recordConfirmed(100);
+        long confirmedAt = timeline.getNanos(Stage.CONFIRMED);
+
+        timeline.recordConfirmed(101);
+        assertEquals(100, timeline.getHeight());
+        assertEquals(confirmedAt, timeline.getNanos(Stage.CONFIRMED));
+    }
+
+    @Test
+    public void testAggregator() {
+        TimelineAggregator aggregator = new TimelineAggregator();
+
+        for (int i = 0; i < 3; i++) {
+            TransactionTimeline timeline = new TransactionTimeline();
+            timeline.record(Stage.SIGN);
+            timeline.record(Stage.HTTP_SEND);
+            aggregator.add(timeline);
+        }
+
+        Map<Stage, HistogramSnapshot> report = aggregator.report();
+        assertEquals(2, report.size());
+        assertEquals(3, report.get(Stage.SIGN).getCount());
+        assertEquals(3, report.get(Stage.HTTP_SEND).getCount());
+        assertTrue(report.get(Stage.SIGN).getMax() >= report.get(Stage.SIGN).getP50());
+    }
+}
@@ -0,0 +1,280 @@
+package com.ltonetwork.client.payout;
+
+import com.ltonetwork.client.TestUtil;
+import com.ltonetwork.client.core.Account;
+import com.ltonetwork.client.core.transaction.FeeCalculator;
+import com.ltonetwork.client.core.transaction.Transaction;
+import com.ltonetwork.client.core.transaction.TransactionId;
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.exceptions.InvalidArgumentException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class PayoutEngineTest {
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final byte CHAIN_ID = 'T';
+    private static final String[] ADDRESSES = {
+            "3MsE8Jfjkh2zaZ1LCGqaDzB5nAYw5FXhfCx",
+            "3MuAaEwy1NDU8E5Y6WocfFq5EpMCMkCsvhR",
+            "3MwGRJ1cbCQgP3mSGMR6pR1EJzXAD3e6Bvu",
+            "3N51gbw5W3xvSkcAXtLnXc3SQh2m9e6TBcy"
+    };
+
+    private Path directory;
+    private Path file;
+    private Path log;
+    private final AtomicLong clock = new AtomicLong(1000);
+    private final List<Long> broadcasts = Collections.synchronizedList(new ArrayList<>());
+
+    private final Account account = TestUtil.createAccount();
+
+    // sets a predictable timestamp before signing
+    private final Consumer<Transaction> signer = tx -> {
+        if (tx.getTimestamp() == 0) tx.setTimestamp(clock.getAndIncrement());
+        tx.signWith(account);
+    };
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+        file = directory.resolve("payout.csv");
+        log = directory.resolve("payout.log");
+    }
+
+    @Test
+    public void testValidate() throws IOException {
+        Files.write(file, Arrays.asList(
+                "address,amount",
+                ADDRESSES[0] + ",100",
+                "3N3Cn2pYtqzj7N9pviSesNe8KG9Cmb718Y1,100",
+                ADDRESSES[1] + ",0",
+                ADDRESSES[2],
+                "",
+                ADDRESSES[3] + ", 5"
+        ));
+
+        List<String> errors = engine(tx -> tx, 1).validate(file, PayoutEngine.Format.CSV);
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).startsWith("line 3:"));
+        assertTrue(errors.get(2).startsWith("line 5:"));
+    }
+
+    @Test
+    public void testMalformedFirstRow() throws IOException {
+        Files.write(file, Arrays.asList(ADDRESSES[0] + ",1O0", ADDRESSES[1] + ",100"));
+
+        List<String> errors = engine(tx -> tx, 1).validate(file, PayoutEngine.Format.CSV);
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).startsWith("line 1:"));
+    }
+
+    @Test
+    public void testInvalidFileIsNotPaid() throws IOException {
+        Files.write(file, Arrays.asList(ADDRESSES[0] + ",100", ADDRESSES[1] + ",-1"));
+
+        try {
+            engine(broadcast(), 1).run(file, PayoutEngine.Format.CSV, log);
+            fail("Expected an invalid payout file");
+        } catch (InvalidArgumentException e) {
+            assertTrue(broadcasts.isEmpty());
+        }
+    }
+
+    @Test
+    public void testInvalidRowsAreCounted() throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) rows.add(ADDRESSES[0] + ",x");
+        Files.write(file, rows);
+
+        try {
+            engine(broadcast(), 1).run(file, PayoutEngine.Format.CSV, log);
+            fail("Expected an invalid payout file");
+        } catch (InvalidArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Invalid payout file, 500 invalid rows: line 1:"));
+        }
+    }
+
+    @Test
+    public void testRun() throws IOException {
+        writeRows(250);
+
+        PayoutEngine.Report report = engine(broadcast(), 4).run(file, PayoutEngine.Format.CSV, log);
+
+        assertEquals(3, report.getChunks());
+        assertEquals(3, report.getSent());
+        assertEquals(0, report.getSkipped());
+        assertEquals(250, report.getTransfers());
+        assertEquals(250 * 251 / 2, report.getAmount());
+        assertEquals(3, broadcasts.size());
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        writeRows(250);
+
+        try {
+            engine(tx -> {
+                if (broadcasts.size() == 1) throw new IllegalStateException("connection lost");
+                broadcasts.add(tx.getTimestamp());
+                return tx;
+            }, 1).run(file, PayoutEngine.Format.CSV, log);
+            fail("Expected the payout to be interrupted");
+        } catch (IllegalStateException e) {
+            assertEquals(1, broadcasts.size());
+        }
+
+        PayoutEngine.Report report = engine(broadcast(), 1).run(file, PayoutEngine.Format.CSV, log);
+
+        assertEquals(1, report.getSkipped());
+        assertEquals(2, report.getSent());
+        // the interrupted chunk is signed again with the same timestamp, so it has the same id
+        assertEquals(Arrays.asList(1000L, 1001L, 1002L), broadcasts);
+    }
+
+    @Test
+    public void testResumeIgnoresTornLine() throws IOException {
+        writeRows(250);
+
+        try {
+            engine(tx -> {
+                if (broadcasts.size() == 1) throw new IllegalStateException("connection lost");
+                broadcasts.add(tx.getTimestamp());
+                return tx;
+            }, 1).run(file, PayoutEngine.Format.CSV, log);
+            fail("Expected the payout to be interrupted");
+        } catch (IllegalStateException e) {
+            assertEquals(1, broadcasts.size());
+        }
+
+        // a crash while chunk 1 was being logged as done
+        Files.write(log, "D 1".getBytes(), StandardOpenOption.APPEND);
+
+        PayoutEngine.Report report = engine(broadcast(), 1).run(file, PayoutEngine.Format.CSV, log);
+
+        assertEquals(1, report.getSkipped());
+        assertEquals(2, report.getSent());
+        assertEquals(Arrays.asList(1000L, 1001L, 1002L), broadcasts);
+    }
+
+    @Test
+    public void testResumeAlreadyBroadcast() throws IOException {
+        writeRows(50);
+        interrupt();
+
+        PayoutEngine.Report report = new PayoutEngine(signer, broadcast(), id -> true, id -> false, CHAIN_ID, 1)
+                .run(file, PayoutEngine.Format.CSV, log);
+
+        assertEquals(1, report.getSent());
+        assertTrue(broadcasts.isEmpty());
+    }
+
+    @Test
+    public void testResumePooled() throws IOException {
+        writeRows(50);
+        interrupt();
+
+        // in the node's unconfirmed pool, so it isn't broadcast again
+        PayoutEngine.Report report = new PayoutEngine(signer, broadcast(), id -> false, id -> true, CHAIN_ID, 1)
+                .run(file, PayoutEngine.Format.CSV, log);
+
+        assertEquals(1, report.getSent());
+        assertTrue(broadcasts.isEmpty());
+    }
+
+    @Test
+    public void testResumeDuplicateRejected() throws IOException {
+        writeRows(50);
+        interrupt();
+
+        // it reached the pool after the lookup
+        Set<TransactionId> pool = new HashSet<>();
+        PayoutEngine.Report report = new PayoutEngine(signer, tx -> {
+            pool.add(tx.getId());
+            throw new HttpResponseException("already in the pool", 400, "");
+        }, id -> false, pool::contains, CHAIN_ID, 1).run(file, PayoutEngine.Format.CSV, log);
+
+        assertEquals(1, report.getSent());
+    }
+
+    @Test
+    public void testResumeWithOtherId() throws IOException {
+        writeRows(50);
+        interrupt();
+
+        FeeCalculator fees = new FeeCalculator();
+        fees.setItemFee((byte) 11, fees.getItemFee((byte) 11) + 1);
+        FeeCalculator.setDefault(fees);
+        try {
+            engine(broadcast(), 1).run(file, PayoutEngine.Format.CSV, log);
+            fail("Expected the rebuilt chunk to be refused");
+        } catch (BadMethodCallException e) {
+            assertTrue(broadcasts.isEmpty());
+        } finally {
+            FeeCalculator.setDefault(null);
+        }
+    }
+
+    @Test
+    public void testLogOfOtherFile() throws IOException {
+        writeRows(10);
+        engine(broadcast(), 1).run(file, PayoutEngine.Format.CSV, log);
+
+        writeRows(11);
+        expectedEx.expect(BadMethodCallException.class);
+        engine(broadcast(), 1).run(file, PayoutEngine.Format.CSV, log);
+    }
+
+    private PayoutEngine engine(Function<Transaction, Transaction> broadcaster, int concurrency) {
+        return new PayoutEngine(signer, broadcaster, id -> false, id -> false, CHAIN_ID, concurrency);
+    }
+
+    // stops a run after the first chunk is signed, before the node answered
+    private void interrupt() {
+        try {
+            engine(tx -> {
+                throw new IllegalStateException("timeout");
+            }, 1).run(file, PayoutEngine.Format.CSV, log);
+            fail("Expected the payout to be interrupted");
+        } catch (IllegalStateException e) {
+            // the node may have accepted the transaction anyway
+        }
+    }
+
+    private Function<Transaction, Transaction> broadcast() {
+        return tx -> {
+            broadcasts.add(tx.getTimestamp());
+            return tx;
+        };
+    }
+
+    private void writeRows(int count) throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) rows.add(ADDRESSES[i % ADDRESSES.length] + "," + i);
+        Files.write(file, rows);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ltonetwork.client.utils.main;
+
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+import com.ltonetwork.client.utils.CircuitBreaker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+
+public class CircuitBreakerTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void testOpensOnFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 4, Duration.ofMinutes(1));
+
+        breaker.record(true);
+        breaker.record(false);
+        breaker.record(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.record(false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        expectedEx.expect(RejectedRequestException.class);
+        breaker.acquire();
+    }
+
+    @Test
+    public void testStaysClosedBelowThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 4, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 20; i++) {
+            breaker.acquire();
+            breaker.record(i % 4 != 0);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 2, Duration.ofMillis(20));
+
+        breaker.record(false);
+        breaker.record(false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(40);
+        breaker.acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.record(false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(40);
+        breaker.acquire();
+        breaker.record(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testSingleTrialWhenHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, Duration.ofMillis(20));
+        breaker.record(false);
+
+        Thread.sleep(40);
+        breaker.acquire();
+
+        expectedEx.expect(RejectedRequestException.class);
+        breaker.acquire();
+    }
+
+    @Test
+    public void testReleaseTrialWhenHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, Duration.ofMillis(20));
+        breaker.record(false);
+
+        Thread.sleep(40);
+        breaker.acquire();
+        breaker.release();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // the trial can be made by the next request
+        breaker.acquire();
+        breaker.record(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
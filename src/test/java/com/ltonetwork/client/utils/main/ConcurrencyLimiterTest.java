@@ -0,0 +1,68 @@
+package com.ltonetwork.client.utils.main;
+
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+import com.ltonetwork.client.utils.ConcurrencyLimiter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrencyLimiterTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void testRejectAtLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0.5, 2);
+
+        assertEquals(1, limiter.acquire());
+        assertEquals(2, limiter.acquire());
+
+        expectedEx.expect(RejectedRequestException.class);
+        limiter.acquire();
+    }
+
+    @Test
+    public void testDecreaseOnFailure() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(8, 1, 10, 0.5, 2);
+
+        int n = limiter.acquire();
+        limiter.release(n, 1000, false);
+
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testDecreaseOnLatency() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(8, 1, 10, 0.5, 2);
+
+        limiter.release(limiter.acquire(), 1000, true);
+        int limit = limiter.getLimit();
+
+        limiter.release(limiter.acquire(), 10000, true);
+        assertEquals(limit / 2, limiter.getLimit());
+    }
+
+    @Test
+    public void testIncreaseUnderLoad() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 5, 0.5, 2);
+
+        // a single request at a time doesn't use the limit
+        limiter.release(limiter.acquire(), 1000, true);
+        assertEquals(4, limiter.getLimit());
+
+        int a = limiter.acquire();
+        int b = limiter.acquire();
+        limiter.release(b, 1000, true);
+        limiter.release(a, 1000, true);
+        assertEquals(5, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.release(limiter.acquire(), 1000, true);
+        assertTrue(limiter.getLimit() <= 5);
+    }
+}
@@ -77,6 +77,23 @@ public class CryptoUtilTest {
         assertArrayEquals(msg, openedBox);
     }
 
+    @Test
+    public void testCryptoBoxAfterNm() {
+        byte[] nonce = CryptoUtil.randomBytes(24);
+        byte[] sharedKey = CryptoUtil.cryptoBoxSharedKey(
+                signKp.getPublicKey().getRaw(),
+                signKp.getPrivateKey().getRaw()
+        );
+
+        byte[] box = CryptoUtil.cryptoBoxAfterNm(nonce, msg, sharedKey);
+
+        assertArrayEquals(
+                CryptoUtil.cryptoBox(nonce, msg, signKp.getPublicKey().getRaw(), signKp.getPrivateKey().getRaw()),
+                box
+        );
+        assertArrayEquals(msg, CryptoUtil.cryptoBoxOpenAfterNm(nonce, box, sharedKey));
+    }
+
     @Test
     public void testGenericHash() {
         byte[] genericHash = CryptoUtil.genericHash(msg, msg.length);
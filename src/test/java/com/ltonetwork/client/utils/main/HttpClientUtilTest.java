@@ -0,0 +1,195 @@
+package com.ltonetwork.client.utils.main;
+
+import com.ltonetwork.client.exceptions.HttpRequestException;
+import com.ltonetwork.client.exceptions.HttpResponseException;
+import com.ltonetwork.client.utils.ByteBufferPool;
+import com.ltonetwork.client.utils.HttpClientUtil;
+import com.ltonetwork.client.utils.PooledBody;
+import com.ltonetwork.client.utils.RetryPolicy;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HttpClientUtilTest {
+    HttpServer server;
+    ExecutorService executor;
+    AtomicInteger requests;
+    URI uri;
+
+    @Before
+    public void init() throws IOException {
+        requests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/flaky", exchange -> {
+            // fails the first two requests
+            respond(exchange, requests.incrementAndGet() <= 2 ? 503 : 200, "{\"height\": 1}");
+        });
+        server.createContext("/missing", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 404, "{\"error\": 311}");
+        });
+        server.createContext("/echo", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 200, new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        });
+        server.createContext("/hedged", exchange -> {
+            // the first request is slow, the hedge of it fails fast
+            int n = requests.incrementAndGet();
+            if (n == 1) sleep(300);
+            respond(exchange, n == 2 ? 500 : 200, "{\"height\": 1}");
+        });
+        server.createContext("/fast", exchange -> respond(exchange, 200, "{\"height\": 1}"));
+        // hedged requests are handled concurrently
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @After
+    public void cleanup() {
+        server.stop(0);
+        executor.shutdownNow();
+        HttpClientUtil.setRetryPolicy(RetryPolicy.NONE);
+        HttpClientUtil.setHedgedReads(false);
+    }
+
+    @Test
+    public void testServerError() {
+        try {
+            HttpClientUtil.get(uri.resolve("/flaky"));
+            fail("Expected exception");
+        } catch (HttpResponseException e) {
+            assertEquals(503, e.getStatusCode());
+            assertTrue(e.isRetryable());
+        }
+    }
+
+    @Test
+    public void testRetry() {
+        HttpClientUtil.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(10)));
+
+        assertEquals(200, HttpClientUtil.get(uri.resolve("/flaky")).statusCode());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testRecordsFlightEvent() throws IOException {
+        HttpClientUtil.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(10)));
+        Path file = Files.createTempFile("http", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.ltonetwork.HttpRequest");
+            recording.start();
+            HttpClientUtil.get(uri.resolve("/flaky"));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        assertEquals(1, events.size());
+        assertEquals("GET", events.get(0).getString("method"));
+        assertEquals("/flaky", events.get(0).getString("endpoint"));
+        assertEquals(200, events.get(0).getInt("statusCode"));
+        assertEquals(3, events.get(0).getInt("attempts"));
+    }
+
+    @Test
+    public void testNoRetryOnClientError() {
+        HttpClientUtil.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(10)));
+
+        try {
+            HttpClientUtil.get(uri.resolve("/missing"));
+            fail("Expected exception");
+        } catch (HttpResponseException e) {
+            assertEquals(404, e.getStatusCode());
+            assertEquals("{\"error\": 311}", e.getBody());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testConnectionFailure() {
+        server.stop(0);
+
+        try {
+            HttpClientUtil.get(uri.resolve("/flaky"));
+            fail("Expected exception");
+        } catch (HttpRequestException e) {
+            assertTrue(e.isRetryable());
+            assertNotNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void testHedgedReads() {
+        HttpClientUtil.setHedgedReads(true);
+        HttpClientUtil.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(10)));
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(200, HttpClientUtil.get(uri.resolve("/flaky")).statusCode());
+        }
+    }
+
+    @Test
+    public void testHedgedReadsPreferSuccess() {
+        HttpClientUtil.setHedgedReads(true);
+
+        // a few of these are hedged as well, as they take longer than the p95
+        for (int i = 0; i < 25; i++) HttpClientUtil.get(uri.resolve("/fast"));
+
+        assertEquals(200, HttpClientUtil.get(uri.resolve("/hedged")).statusCode());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testPostPooledBody() {
+        ByteBufferPool pool = new ByteBufferPool(16, 8);
+        PooledBody body = new PooledBody(pool);
+        String json = "{\"type\": 15, \"anchors\": [\"JAvfsDmnYCuPTRnyBeRB3UrCFBwgL4AtHmVYFd5YJqLa\"]}";
+        body.write(json.getBytes(StandardCharsets.UTF_8), 0, json.length());
+
+        assertEquals(json, HttpClientUtil.post(uri.resolve("/echo"), body).body());
+
+        // the buffers go back to the pool once the exchange completes, which may be just after the response is returned
+        for (int i = 0; i < 100 && pool.available() < pool.getAllocatedCount(); i++) sleep(10);
+        assertEquals(pool.getAllocatedCount(), pool.available());
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ltonetwork.client.utils.main;
+
+import com.ltonetwork.client.exceptions.BadMethodCallException;
+import com.ltonetwork.client.utils.ByteBufferPool;
+import com.ltonetwork.client.utils.PooledBody;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+import static org.junit.Assert.*;
+
+public class PooledBodyTest {
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void testBuffersAreReused() {
+        ByteBufferPool pool = new ByteBufferPool(16, 4);
+
+        for (int i = 0; i < 10; i++) {
+            PooledBody body = new PooledBody(pool);
+            body.write(new byte[40], 0, 40);
+            body.release();
+            body.release();
+        }
+
+        assertEquals(3, pool.getAllocatedCount());
+        assertEquals(3, pool.available());
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        ByteBufferPool pool = new ByteBufferPool(16, 2);
+        PooledBody body = new PooledBody(pool);
+        body.write(new byte[100], 0, 100);
+        body.release();
+
+        assertEquals(7, pool.getAllocatedCount());
+        assertEquals(2, pool.available());
+    }
+
+    @Test
+    public void testPublisher() {
+        PooledBody body = new PooledBody(new ByteBufferPool(4, 4));
+        for (int i = 0; i < 10; i++) body.write('a' + i);
+
+        HttpRequest.BodyPublisher publisher = body.publisher();
+        assertEquals(10, publisher.contentLength());
+
+        // subscribed twice, requesting one buffer at a time from onNext
+        for (int i = 0; i < 2; i++) assertEquals("abcdefghij", collect(publisher));
+    }
+
+    @Test
+    public void testReleaseWaitsForSubscription() {
+        ByteBufferPool pool = new ByteBufferPool(4, 4);
+        PooledBody body = new PooledBody(pool);
+        body.write(new byte[10], 0, 10);
+
+        HttpRequest.BodyPublisher publisher = body.publisher();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        boolean[] complete = new boolean[1];
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                s.request(1);
+            }
+
+            public void onNext(ByteBuffer item) {
+            }
+
+            public void onError(Throwable throwable) {
+                fail(throwable.toString());
+            }
+
+            public void onComplete() {
+                complete[0] = true;
+            }
+        });
+
+        // the request is still sending
+        body.release();
+        assertEquals(0, pool.available());
+
+        subscription[0].request(2);
+        assertTrue(complete[0]);
+        assertEquals(3, pool.available());
+
+        // a subscription after release fails instead of reading reused buffers
+        Throwable[] error = new Throwable[1];
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            public void onSubscribe(Flow.Subscription s) {
+            }
+
+            public void onNext(ByteBuffer item) {
+                fail("Expected no buffers");
+            }
+
+            public void onError(Throwable throwable) {
+                error[0] = throwable;
+            }
+
+            public void onComplete() {
+                fail("Expected an error");
+            }
+        });
+        assertTrue(error[0] instanceof BadMethodCallException);
+    }
+
+    @Test
+    public void testReleased() {
+        PooledBody body = new PooledBody(new ByteBufferPool());
+        body.release();
+
+        expectedEx.expect(BadMethodCallException.class);
+        body.write(1);
+    }
+
+    private static String collect(HttpRequest.BodyPublisher publisher) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean[] complete = new boolean[1];
+
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            private Flow.Subscription subscription;
+
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            public void onNext(ByteBuffer item) {
+                while (item.hasRemaining()) out.write(item.get());
+                subscription.request(1);
+            }
+
+            public void onError(Throwable throwable) {
+                fail(throwable.toString());
+            }
+
+            public void onComplete() {
+                complete[0] = true;
+            }
+        });
+
+        assertTrue(complete[0]);
+        return out.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ltonetwork.client.utils.main;
+
+import com.ltonetwork.client.exceptions.RejectedRequestException;
+import com.ltonetwork.client.utils.RateLimiter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RateLimiterTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void testBurst() {
+        RateLimiter limiter = new RateLimiter(1, 3);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testReject() {
+        RateLimiter limiter = new RateLimiter(1, 1, RateLimiter.Mode.REJECT);
+        limiter.permit();
+
+        expectedEx.expect(RejectedRequestException.class);
+        limiter.permit();
+    }
+
+    @Test
+    public void testBlock() {
+        RateLimiter limiter = new RateLimiter(50, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) limiter.permit();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // the first permit is available right away, the other five take 20ms each
+        assertTrue(elapsedMillis >= 95);
+    }
+
+    @Test
+    public void testAcquireAsync() {
+        RateLimiter limiter = new RateLimiter(50, 1);
+
+        assertTrue(limiter.acquireAsync().isDone());
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> future = limiter.acquireAsync();
+        assertFalse(future.isDone());
+        assertFalse(limiter.tryAcquire());
+
+        future.join();
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 15);
+    }
+
+    @Test
+    public void testRefund() {
+        RateLimiter limiter = new RateLimiter(1, 1, RateLimiter.Mode.REJECT);
+        limiter.permit();
+        limiter.refund();
+        limiter.permit();
+
+        limiter.refund();
+        limiter.refund();
+        assertTrue(limiter.getAvailablePermits() <= 1);
+    }
+
+    @Test
+    public void testPermitAsyncReject() {
+        RateLimiter limiter = new RateLimiter(1, 1, RateLimiter.Mode.REJECT);
+
+        assertTrue(limiter.permitAsync().isDone());
+
+        CompletableFuture<Void> future = limiter.permitAsync();
+        assertTrue(future.isCompletedExceptionally());
+
+        try {
+            future.join();
+            fail("Expected exception");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof RejectedRequestException);
+        }
+    }
+}
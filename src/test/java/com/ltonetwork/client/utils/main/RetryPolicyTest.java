@@ -0,0 +1,29 @@
+package com.ltonetwork.client.utils.main;
+
+import com.ltonetwork.client.utils.RetryPolicy;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void testBackoffIsBounded() {
+        RetryPolicy policy = new RetryPolicy(10, Duration.ofMillis(100), Duration.ofSeconds(1));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoff(1).toMillis() <= 100);
+            assertTrue(policy.backoff(3).toMillis() <= 400);
+            assertTrue(policy.backoff(10).toMillis() <= 1000);
+            assertTrue(policy.backoff(50).toMillis() <= 1000);
+        }
+    }
+
+    @Test
+    public void testNone() {
+        assertTrue(RetryPolicy.NONE.getMaxAttempts() == 1);
+        assertTrue(RetryPolicy.NONE.backoff(1).isZero());
+    }
+}
@@ -0,0 +1,92 @@
+package com.ltonetwork.client.utils.main;
+
+import com.ltonetwork.client.utils.SingleFlight;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsShareExecution() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+
+        Thread first = new Thread(() -> results.add(singleFlight.execute("key", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        })));
+        first.start();
+        started.await();
+
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Thread waiter = new Thread(() -> results.add(singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                return "other";
+            })));
+            waiter.start();
+            waiters.add(waiter);
+        }
+
+        // waiters park once they joined the in-flight call
+        for (Thread waiter : waiters) {
+            while (waiter.getState() != Thread.State.WAITING) Thread.sleep(1);
+        }
+        release.countDown();
+
+        first.join();
+        for (Thread waiter : waiters) waiter.join();
+
+        assertEquals(Arrays.asList("value", "value", "value", "value"), results);
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    public void testSequentialCallsExecuteAgain() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("key", executions::incrementAndGet);
+        singleFlight.execute("key", executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testExceptionIsRethrown() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        try {
+            singleFlight.execute("key", () -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+
+        assertEquals("ok", singleFlight.execute("key", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}